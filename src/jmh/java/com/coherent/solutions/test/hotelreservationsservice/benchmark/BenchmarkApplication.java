@@ -0,0 +1,39 @@
+package com.coherent.solutions.test.hotelreservationsservice.benchmark;
+
+import com.coherent.solutions.test.hotelreservationsservice.CoherentHotelReservationTestApplication;
+import com.coherent.solutions.test.hotelreservationsservice.repository.migration.ReservationIdSequenceMigration;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndexLoader;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/*
+starts the application without the web server against a local in memory H2 database seeded with the given rows
+*/
+public class BenchmarkApplication {
+
+    public static ConfigurableApplicationContext start(String name, int rows) {
+        return start(name, rows, new String[0]);
+    }
+
+    //properties are added to the ones of every benchmark, and win over them
+    public static ConfigurableApplicationContext start(String name, int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CoherentHotelReservationTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + name + "-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.main.banner-mode=off",
+                        "hotel.occupancy.file=",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+
+        new ReservationDataGenerator().insert(context.getBean(JdbcTemplate.class), rows);
+        context.getBean(ReservationIdSequenceMigration.class).migrate();
+        context.getBean(RoomReservationIndexLoader.class).load();
+        return context;
+    }
+}
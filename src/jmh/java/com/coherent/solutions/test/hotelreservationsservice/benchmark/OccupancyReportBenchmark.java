@@ -0,0 +1,78 @@
+package com.coherent.solutions.test.hotelreservationsservice.benchmark;
+
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.report.OccupancyCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/*
+occupancy report over 1M bookings, 1000 stays in each of the 1000 rooms, one after the other over about 10 years.
+the index is filled directly, the report does not go to the database
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class OccupancyReportBenchmark {
+
+    private static final int STAYS_PER_ROOM = 1000;
+    private static final LocalDate FIRST_DATE = LocalDate.of(2020, 1, 1);
+
+    @Param({"30", "365"})
+    private int nights;
+
+    @Param({"room", "hotel"})
+    private String groupBy;
+
+    @Param({"true", "false"})
+    private boolean parallel;
+
+    private final int[] rooms = IntStream.rangeClosed(1, ReservationDataGenerator.ROOMS).toArray();
+    private ForkJoinPool forkJoinPool;
+    private OccupancyCalculator occupancyCalculator;
+    private IntUnaryOperator groupOfRoom;
+    private LocalDate from;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RoomReservationIndex roomReservationIndex = new RoomReservationIndex();
+        SplittableRandom random = new SplittableRandom(42);
+        int id = 0;
+        for (int room : rooms) {
+            LocalDate startDate = FIRST_DATE;
+            for (int stay = 0; stay < STAYS_PER_ROOM; stay++) {
+                startDate = startDate.plusDays(random.nextInt(3));
+                LocalDate endDate = startDate.plusDays(1 + random.nextInt(3));
+                roomReservationIndex.put(++id, room, startDate, endDate);
+                startDate = endDate;
+            }
+        }
+
+        forkJoinPool = parallel ? ForkJoinPool.commonPool() : new ForkJoinPool(1);
+        occupancyCalculator = new OccupancyCalculator(roomReservationIndex, forkJoinPool);
+        groupOfRoom = "room".equals(groupBy) ? room -> room : room -> 0;
+        //the middle of the booked dates, the report walks past half of the stays of each room
+        from = FIRST_DATE.plusYears(5);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!parallel) {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, int[]> occupancy() {
+        return occupancyCalculator.calculate(rooms, from, from.plusDays(nights), groupOfRoom);
+    }
+}
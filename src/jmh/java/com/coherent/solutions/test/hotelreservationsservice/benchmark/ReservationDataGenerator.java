@@ -0,0 +1,72 @@
+package com.coherent.solutions.test.hotelreservationsservice.benchmark;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.ClientNames;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.model.ReservationMother;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+fills the reservation table with the same layout on every run: rows are spread round robin over ROOMS rooms,
+each room gets back to back stays of 1 to 5 nights separated by 0 to 2 free nights, starting tomorrow.
+only client names come from faker (through ReservationMother) and change between runs
+*/
+public class ReservationDataGenerator {
+
+    public static final int ROOMS = 1000;
+    public static final long SEED = 20240216L;
+
+    private static final int CHUNK_SIZE = 10_000;
+
+    private static final String INSERT_RESERVATION = """
+        insert into reservation (id, client_full_name, client_name_key, room_number, start_date, end_date)
+        values (?, ?, ?, ?, ?, ?)
+        """;
+
+    private final Random random = new Random(SEED);
+    private final LocalDate[] nextFreeDate = new LocalDate[ROOMS + 1];
+
+    public ReservationDataGenerator() {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        for (int roomNumber = 1; roomNumber <= ROOMS; roomNumber++) {
+            nextFreeDate[roomNumber] = tomorrow;
+        }
+    }
+
+    public Reservation next(int id) {
+        int roomNumber = (id - 1) % ROOMS + 1;
+        LocalDate startDate = nextFreeDate[roomNumber].plusDays(random.nextInt(3));
+        LocalDate endDate = startDate.plusDays(1 + random.nextInt(5));
+        nextFreeDate[roomNumber] = endDate;
+
+        return ReservationMother.complete()
+                .id(id)
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+
+    public void insert(JdbcTemplate jdbcTemplate, int rows) {
+        List<Reservation> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int id = 1; id <= rows; id++) {
+            chunk.add(next(id));
+            if (chunk.size() == CHUNK_SIZE || id == rows) {
+                jdbcTemplate.batchUpdate(INSERT_RESERVATION, chunk, chunk.size(), (statement, reservation) -> {
+                    statement.setInt(1, reservation.getId());
+                    statement.setString(2, reservation.getClientFullName());
+                    statement.setString(3, ClientNames.normalize(reservation.getClientFullName()));
+                    statement.setInt(4, reservation.getRoomNumber());
+                    statement.setDate(5, Date.valueOf(reservation.getStartDate()));
+                    statement.setDate(6, Date.valueOf(reservation.getEndDate()));
+                });
+                chunk.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.coherent.solutions.test.hotelreservationsservice.benchmark;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.mappers.ReservationMapper;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.model.ReservationMother;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservationMapperBenchmark {
+
+    private ReservationRequestDTO reservationRequest;
+    private Reservation reservation;
+
+    @Setup
+    public void setUp() {
+        reservationRequest = ReservationRequestDTOMother.complete().build();
+        reservation = ReservationMother.complete().build();
+    }
+
+    @Benchmark
+    public Reservation reservationRequestDTOToReservation() {
+        return ReservationMapper.INSTANCE.reservationRequestDTOToReservation(reservationRequest);
+    }
+
+    @Benchmark
+    public ReservationResponseDTO reservationToReservationResponseDTO() {
+        return ReservationMapper.INSTANCE.reservationToReservationResponseDTO(reservation);
+    }
+}
@@ -0,0 +1,65 @@
+package com.coherent.solutions.test.hotelreservationsservice.benchmark;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReservationRepositoryBenchmark {
+
+    private static final int PROBES = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    //reservations and query results kept in the hibernate second level cache, or read from h2 every time
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private ReservationRepository reservationRepository;
+
+    private final int[] ids = new int[PROBES];
+    private final int[] roomNumbers = new int[PROBES];
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("repository-" + secondLevelCache, rows,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        reservationRepository = context.getBean(ReservationRepository.class);
+
+        Random random = new Random(ReservationDataGenerator.SEED);
+        for (int i = 0; i < PROBES; i++) {
+            roomNumbers[i] = 1 + random.nextInt(ReservationDataGenerator.ROOMS);
+            ids[i] = 1 + random.nextInt(rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Reservation> findByRoomNumberOrderByStartDateAsc() {
+        return reservationRepository.findByRoomNumberOrderByStartDateAsc(roomNumbers[probe++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Reservation> findById() {
+        return reservationRepository.findById(ids[probe++ & (PROBES - 1)]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.coherent.solutions.test.hotelreservationsservice.benchmark;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReservationServiceBenchmark {
+
+    private static final int REQUESTS = 1024;
+    private static final int GROUP_SIZE = 50;
+
+    //rooms above the seeded ones, so every saved reservation is accepted
+    private static final int FIRST_FREE_ROOM = ReservationDataGenerator.ROOMS + 1;
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+
+    private final ReservationRequestDTO[] requests = new ReservationRequestDTO[REQUESTS];
+    private int saved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //reads would otherwise be answered by the spring caches after the first invocation
+        context = BenchmarkApplication.start("service", rows, "spring.cache.type=none");
+        reservationService = context.getBean(ReservationService.class);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            requests[i] = ReservationRequestDTOMother.complete().build();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReservationResponseDTO saveReservation() {
+        ReservationRequestDTO template = requests[saved & (REQUESTS - 1)];
+        ReservationRequestDTO request = ReservationRequestDTO.builder()
+                .clientFullName(template.getClientFullName())
+                .roomNumber(FIRST_FREE_ROOM + saved++)
+                .startDate(template.getStartDate())
+                .endDate(template.getEndDate())
+                .build();
+        return reservationService.saveReservation(request);
+    }
+
+    //flash sales create thousands of holds a minute
+    @Benchmark
+    public RoomHoldResponseDTO holdRoom() {
+        ReservationRequestDTO template = requests[saved & (REQUESTS - 1)];
+        return reservationService.holdRoom(RoomHoldRequestDTO.builder()
+                .roomNumber(FIRST_FREE_ROOM + saved++)
+                .startDate(template.getStartDate())
+                .endDate(template.getEndDate())
+                .build());
+    }
+
+    //a conference booked one room at a time, to compare with saveReservationGroup
+    @Benchmark
+    public List<ReservationResponseDTO> saveReservationsOneByOne() {
+        List<ReservationResponseDTO> reservations = new ArrayList<>();
+        for (ReservationRequestDTO request : nextGroup()) {
+            reservations.add(reservationService.saveReservation(request));
+        }
+        return reservations;
+    }
+
+    @Benchmark
+    public List<ReservationResponseDTO> saveReservationGroup() {
+        return reservationService.saveReservationGroup(nextGroup());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<ReservationResponseDTO> getReservations() {
+        return reservationService.getReservations();
+    }
+
+    @Benchmark
+    public List<ReservationResponseDTO> getReservationsPage() {
+        return reservationService.getReservations(rows / 2, 100);
+    }
+
+    private List<ReservationRequestDTO> nextGroup() {
+        List<ReservationRequestDTO> group = new ArrayList<>(GROUP_SIZE);
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            ReservationRequestDTO template = requests[i];
+            group.add(ReservationRequestDTO.builder()
+                    .clientFullName(template.getClientFullName())
+                    .roomNumber(FIRST_FREE_ROOM + saved++)
+                    .startDate(template.getStartDate())
+                    .endDate(template.getEndDate())
+                    .build());
+        }
+        return group;
+    }
+}
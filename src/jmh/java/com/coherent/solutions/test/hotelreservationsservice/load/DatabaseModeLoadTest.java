@@ -0,0 +1,138 @@
+package com.coherent.solutions.test.hotelreservationsservice.load;
+
+import org.h2.tools.Server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+runs ReservationLoadTest against the application opening the database in process (tuned-db profile) and then against
+the application reaching it through an h2 tcp server (tuned-db and h2-server profiles), to pick the faster one.
+each mode gets an empty database in a temporary directory, the tcp server is started by this test.
+after each run prints how long requests waited for a pooled connection and how many gave up waiting.
+build the jar first: mvn package -DskipTests
+arguments: application jar (target/hotel-reservations-service-0.0.1-SNAPSHOT.jar), concurrency (200), duration in
+seconds (30)
+*/
+public class DatabaseModeLoadTest {
+
+    private static final String BASE_URL = "http://localhost:8080";
+    private static final int H2_PORT = 9092;
+    private static final long STARTUP_TIMEOUT_SECONDS = 120;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final String jar;
+    private final Path directory;
+
+    public DatabaseModeLoadTest(String jar, Path directory) {
+        this.jar = jar;
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jar = args.length > 0 ? args[0] : "target/hotel-reservations-service-0.0.1-SNAPSHOT.jar";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int duration = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        DatabaseModeLoadTest loadTest = new DatabaseModeLoadTest(jar, Files.createTempDirectory("database-mode"));
+        loadTest.run("embedded", "tuned-db", concurrency, duration);
+
+        Server server = Server.createTcpServer("-tcpPort", String.valueOf(H2_PORT), "-ifNotExists").start();
+        try {
+            loadTest.run("tcp", "tuned-db,h2-server", concurrency, duration);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void run(String mode, String profiles, int concurrency, int duration) throws Exception {
+        if (isListening()) {
+            throw new IllegalStateException("another application is already listening on " + BASE_URL);
+        }
+
+        Path modeDirectory = Files.createDirectories(directory.resolve(mode));
+        Process application = new ProcessBuilder(List.of("java", "-jar", jar,
+                "--spring.profiles.active=" + profiles,
+                "--hotel.database.file=" + modeDirectory.resolve("myDB").toAbsolutePath(),
+                "--hotel.database.server=localhost:" + H2_PORT,
+                "--hotel.occupancy.file=",
+                "--hotel.change-log.file=" + modeDirectory.resolve("reservation-changes.ndjson").toAbsolutePath()))
+                .redirectErrorStream(true)
+                .redirectOutput(modeDirectory.resolve("application.log").toFile())
+                .start();
+        try {
+            awaitStarted(application);
+            System.out.printf("mode=%s ", mode);
+            new ReservationLoadTest(BASE_URL).measure(concurrency, duration);
+            reportPool(mode);
+        } finally {
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private void awaitStarted(Process application) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STARTUP_TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            if (!application.isAlive()) {
+                throw new IllegalStateException("the application exited with " + application.exitValue());
+            }
+            try {
+                if (get("/actuator/health").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                //not listening yet
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("the application did not start in " + STARTUP_TIMEOUT_SECONDS + " seconds");
+    }
+
+    private boolean isListening() throws InterruptedException {
+        try {
+            get("/actuator/health");
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    //acquire is a timer in seconds, timeouts a counter
+    private void reportPool(String mode) throws Exception {
+        String acquire = get("/actuator/metrics/hikaricp.connections.acquire").body();
+        String timeouts = get("/actuator/metrics/hikaricp.connections.timeout").body();
+
+        double count = statistic(acquire, "COUNT");
+        System.out.printf("mode=%s connections=%.0f acquire mean=%.3f ms max=%.1f ms timeouts=%.0f%n", mode, count,
+                count == 0 ? 0 : statistic(acquire, "TOTAL_TIME") * 1000 / count, statistic(acquire, "MAX") * 1000,
+                statistic(timeouts, "COUNT"));
+    }
+
+    private double statistic(String metric, String statistic) {
+        Matcher matcher = Pattern.compile("\"statistic\":\"" + statistic + "\",\"value\":([-0-9.eE]+)").matcher(metric);
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
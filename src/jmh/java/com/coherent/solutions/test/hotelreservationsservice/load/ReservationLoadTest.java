@@ -0,0 +1,176 @@
+package com.coherent.solutions.test.hotelreservationsservice.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+closed loop load test against a running server: keeps `concurrency` requests in flight for `duration` seconds and
+prints the throughput and the latency percentiles. run it once against the server started with the default profile
+(platform threads) and once with the virtual-threads profile to compare them.
+the mix is 80% GET /reservation/{id}, 10% GET /reservation/room/{roomNumber} and 10% POST /reservation,
+reservations read are created first through POST /reservation/batch.
+arguments: base url (http://localhost:8080), concurrency (1000), duration in seconds (30)
+*/
+public class ReservationLoadTest {
+
+    private static final int ROOMS = 999;
+    private static final int SEED_BATCHES = 5;
+    private static final int WARMUP_SECONDS = 10;
+
+    //latencies are counted in buckets of 100 microseconds, up to 10 seconds
+    private static final long BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int BUCKETS = 100_000;
+
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final List<Integer> ids = new ArrayList<>();
+
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean recording;
+
+    public ReservationLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int duration = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        new ReservationLoadTest(baseUrl).measure(concurrency, duration);
+    }
+
+    //seeds, warms up and then measures the server, prints the results
+    public void measure(int concurrency, int duration) throws Exception {
+        seed();
+        run(concurrency, WARMUP_SECONDS, false);
+        run(concurrency, duration, true);
+        report(concurrency, duration);
+    }
+
+    //one reservation per room and batch, far enough in the future not to collide with earlier runs
+    private void seed() throws Exception {
+        LocalDate startDate = LocalDate.now().plusYears(1).plusDays(ThreadLocalRandom.current().nextInt(3000));
+        for (int batch = 0; batch < SEED_BATCHES; batch++) {
+            StringBuilder body = new StringBuilder("[");
+            for (int roomNumber = 1; roomNumber <= ROOMS; roomNumber++) {
+                if (roomNumber > 1) {
+                    body.append(',');
+                }
+                body.append(reservationJson(roomNumber, startDate.plusDays(batch * 2L), startDate.plusDays(batch * 2L + 1)));
+            }
+            body.append(']');
+
+            HttpResponse<String> response = client.send(post("/reservation/batch", body.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = ID.matcher(response.body());
+            while (matcher.find()) {
+                ids.add(Integer.parseInt(matcher.group(1)));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("no reservation could be created on " + baseUrl);
+        }
+    }
+
+    private void run(int concurrency, int seconds, boolean record) throws InterruptedException {
+        recording = record;
+        Semaphore inFlight = new Semaphore(concurrency);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> response = client.sendAsync(nextRequest(), HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((result, error) -> {
+                record(start, error == null && result.statusCode() < 500);
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = random.nextInt(10);
+        if (operation == 0) {
+            LocalDate startDate = LocalDate.now().plusDays(1 + random.nextInt(365));
+            return post("/reservation", reservationJson(1 + random.nextInt(ROOMS), startDate, startDate.plusDays(1)));
+        }
+        if (operation == 1) {
+            return get("/reservation/room/" + (1 + random.nextInt(ROOMS)));
+        }
+        return get("/reservation/" + ids.get(random.nextInt(ids.size())));
+    }
+
+    private void record(long start, boolean succeeded) {
+        if (!recording) {
+            return;
+        }
+        requests.incrementAndGet();
+        if (!succeeded) {
+            errors.incrementAndGet();
+        }
+        int bucket = (int) Math.min(BUCKETS - 1, (System.nanoTime() - start) / BUCKET_NANOS);
+        latencies.incrementAndGet(bucket);
+    }
+
+    private void report(int concurrency, int duration) {
+        System.out.printf("concurrency=%d requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms p99.9=%.1f ms%n",
+                concurrency, requests.get(), errors.get(), (double) requests.get() / duration,
+                percentile(0.50), percentile(0.99), percentile(0.999));
+    }
+
+    private double percentile(double percentile) {
+        long target = (long) Math.ceil(requests.get() * percentile);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += latencies.get(bucket);
+            if (seen >= target) {
+                return (bucket + 1) * BUCKET_NANOS / 1_000_000.0;
+            }
+        }
+        return BUCKETS * BUCKET_NANOS / 1_000_000.0;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String reservationJson(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        return String.format("{\"clientFullName\":\"load test\",\"roomNumber\":%d,\"startDate\":\"%s\",\"endDate\":\"%s\"}",
+                roomNumber, startDate, endDate);
+    }
+}
@@ -0,0 +1,106 @@
+package com.coherent.solutions.test.hotelreservationsservice.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+time from launching the application to its first successful POST /reservation, what a new instance takes to start
+taking bookings. the application is started `runs` times with the given command and stopped after each run, the first
+run only warms up the file system cache and is left out.
+compare the default build with the prod build (mvn -Pprod package):
+    java -jar target/hotel-reservations-service-0.0.1-SNAPSHOT.jar
+    java -XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar target/app/hotel-reservations-service-0.0.1-SNAPSHOT-app.jar
+arguments: runs, base url, then the command starting the application
+*/
+public class StartupTimeTest {
+
+    private static final int ROOMS = 999;
+    private static final long POLL_MILLIS = 5;
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final String baseUrl;
+    private final List<String> command;
+
+    public StartupTimeTest(String baseUrl, List<String> command) {
+        this.baseUrl = baseUrl;
+        this.command = command;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        StartupTimeTest startupTimeTest = new StartupTimeTest(args[1], Arrays.asList(args).subList(2, args.length));
+
+        startupTimeTest.run();
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = startupTimeTest.run();
+            System.out.printf("run %d: first booking after %d ms%n", run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+        System.out.printf("runs=%d min=%d ms median=%d ms max=%d ms%n",
+                runs, millis[0], millis[runs / 2], millis[runs - 1]);
+    }
+
+    private long run() throws Exception {
+        long start = System.nanoTime();
+        Process application = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpRequest booking = booking();
+            long deadline = start + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (System.nanoTime() < deadline) {
+                if (!application.isAlive()) {
+                    throw new IllegalStateException("the application exited with " + application.exitValue());
+                }
+                if (isCreated(booking)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+            throw new IllegalStateException("no booking was created in " + TIMEOUT_SECONDS + " seconds");
+        } finally {
+            //a graceful stop, so the application closes its files as it would in production
+            application.destroy();
+            if (!application.waitFor(30, TimeUnit.SECONDS)) {
+                application.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean isCreated(HttpRequest booking) throws InterruptedException {
+        try {
+            return client.send(booking, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+        } catch (IOException e) {
+            //not listening yet
+            return false;
+        }
+    }
+
+    //a random night far enough in the future not to collide with earlier runs
+    private HttpRequest booking() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate startDate = LocalDate.now().plusYears(1).plusDays(random.nextInt(3000));
+        String body = String.format("{\"clientFullName\":\"startup test\",\"roomNumber\":%d,\"startDate\":\"%s\",\"endDate\":\"%s\"}",
+                1 + random.nextInt(ROOMS), startDate, startDate.plusDays(1));
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/reservation"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
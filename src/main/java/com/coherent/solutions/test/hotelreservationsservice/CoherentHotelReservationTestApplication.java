@@ -2,8 +2,10 @@ package com.coherent.solutions.test.hotelreservationsservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CoherentHotelReservationTestApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,41 @@
+package com.coherent.solutions.test.hotelreservationsservice.config;
+
+import com.coherent.solutions.test.hotelreservationsservice.service.cache.ReservationCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/*
+caches are bounded by number of entries and expire after hotel.cache.expire-after-write.
+stats are recorded so hits and misses are published as cache.gets metrics
+*/
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> reservationCachesCustomizer(HotelProperties hotelProperties) {
+        HotelProperties.Cache cache = hotelProperties.getCache();
+        return cacheManager -> {
+            cacheManager.registerCustomCache(ReservationCache.RESERVATION,
+                    build(cache.getReservations(), cache.getExpireAfterWrite()));
+            cacheManager.registerCustomCache(ReservationCache.ROOM_RESERVATIONS,
+                    build(cache.getRoomReservations(), cache.getExpireAfterWrite()));
+            cacheManager.registerCustomCache(ReservationCache.RESERVATION_LISTS,
+                    build(cache.getReservationLists(), cache.getExpireAfterWrite()));
+        };
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> build(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
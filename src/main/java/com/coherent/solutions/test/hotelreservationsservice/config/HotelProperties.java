@@ -0,0 +1,82 @@
+package com.coherent.solutions.test.hotelreservationsservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "hotel")
+public class HotelProperties {
+
+    private Rooms rooms = new Rooms();
+    private Cache cache = new Cache();
+    private Events events = new Events();
+    private ChangeLog changeLog = new ChangeLog();
+    private Occupancy occupancy = new Occupancy();
+    private Holds holds = new Holds();
+
+    //room numbers of the hotel, from first to last, both included
+    @Data
+    public static class Rooms {
+        private int first = 1;
+        private int last = 999;
+        //rooms 100 to 199 are on floor 1 and so on
+        private int perFloor = 100;
+    }
+
+    //maximum number of entries of each reservation cache, a whole list or page is a single entry
+    @Data
+    public static class Cache {
+        private long reservations = 10000;
+        private long roomReservations = 1000;
+        private long reservationLists = 100;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+        private SecondLevel secondLevel = new SecondLevel();
+    }
+
+    //maximum number of reservations and of cached query results kept by hibernate, see SecondLevelCacheConfig
+    @Data
+    public static class SecondLevel {
+        private long reservations = 50000;
+        private long queries = 1000;
+    }
+
+    //events kept to resume subscriptions, and events buffered for each subscriber that has not read them yet
+    @Data
+    public static class Events {
+        private int history = 1000;
+        private int buffer = 256;
+    }
+
+    /*
+    the relay publishes up to batchSize changes at a time, every relayInterval milliseconds, to the sink:
+    file (appended to file), memory (for tests) or any other value to provide a ReservationChangeSink bean
+    */
+    @Data
+    public static class ChangeLog {
+        private String sink = "file";
+        private String file = "/data/reservation-changes.ndjson";
+        private int batchSize = 500;
+        private long relayInterval = 1000;
+        private boolean relayEnabled = true;
+    }
+
+    /*
+    booked nights of rooms 0 to lastRoom for horizonYears years, memory mapped from file.
+    an empty file keeps the bitmap in memory only, rebuilt on every start
+    */
+    @Data
+    public static class Occupancy {
+        private String file = "/data/room-occupancy.bin";
+        private int lastRoom = 9999;
+        private int horizonYears = 3;
+    }
+
+    //rooms are held for ttl while the guest pays, expired holds are deleted up to reapBatchSize at a time
+    @Data
+    public static class Holds {
+        private Duration ttl = Duration.ofMinutes(10);
+        private int reapBatchSize = 500;
+    }
+}
@@ -0,0 +1,47 @@
+package com.coherent.solutions.test.hotelreservationsservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+//makes @Timed work on any bean, spring only handles it on controllers by itself
+@Configuration
+public class MetricsConfig {
+
+    private static final String POOL_SATURATION_METRIC = "datasource.pool.saturation";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /*
+    connections in use plus requests waiting for one, over the pool size: above 1 requests are queuing for the pool.
+    spring boot already publishes the hikaricp_connections_* metrics this is computed from
+    */
+    @Bean
+    public MeterBinder dataSourcePoolSaturation(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .forEach(dataSource -> Gauge.builder(POOL_SATURATION_METRIC, dataSource, MetricsConfig::saturation)
+                        .tag("pool", String.valueOf(dataSource.getPoolName()))
+                        .register(registry));
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / dataSource.getMaximumPoolSize();
+    }
+}
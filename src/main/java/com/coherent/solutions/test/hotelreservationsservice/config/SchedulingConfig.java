@@ -0,0 +1,12 @@
+package com.coherent.solutions.test.hotelreservationsservice.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+//runs ReservationChangeRelay in the background, tests turn it off and relay by hand
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "hotel.change-log", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
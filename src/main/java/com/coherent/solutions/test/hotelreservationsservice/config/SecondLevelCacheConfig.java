@@ -0,0 +1,68 @@
+package com.coherent.solutions.test.hotelreservationsservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/*
+regions of the hibernate second level cache, kept in caffeine through jcache: reservations by id and the ids
+returned by the cacheable queries, bounded by number of entries and expiring like the spring caches.
+the update timestamps region is how hibernate knows a cached query result is stale, it has one entry per table
+and must not lose it before the query results, so it is neither bounded nor expiring.
+hibernate statistics of every region are published as hibernate.second.level.cache.* and hibernate.cache.query.*
+*/
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String RESERVATION_REGION = "reservation";
+    public static final String RESERVATION_QUERIES_REGION = "reservation-queries";
+
+    //regions hibernate always creates once the query cache is enabled
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final long DEFAULT_QUERY_RESULTS = 100;
+
+    //every application context gets its own cache manager, tests start several of them against different databases
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(HotelProperties hotelProperties) {
+        HotelProperties.Cache cache = hotelProperties.getCache();
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hotel:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(RESERVATION_REGION,
+                region(OptionalLong.of(cache.getSecondLevel().getReservations()), cache.getExpireAfterWrite()));
+        cacheManager.createCache(RESERVATION_QUERIES_REGION,
+                region(OptionalLong.of(cache.getSecondLevel().getQueries()), cache.getExpireAfterWrite()));
+        cacheManager.createCache(DEFAULT_QUERY_RESULTS_REGION,
+                region(OptionalLong.of(DEFAULT_QUERY_RESULTS), cache.getExpireAfterWrite()));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(OptionalLong.empty(), null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    //entries are kept by reference, hibernate never changes a cached entry once it is put
+    private CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maximumSize);
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        return configuration;
+    }
+}
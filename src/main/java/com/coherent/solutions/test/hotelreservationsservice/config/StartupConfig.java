@@ -0,0 +1,24 @@
+package com.coherent.solutions.test.hotelreservationsservice.config;
+
+import com.coherent.solutions.test.hotelreservationsservice.service.changelog.ReservationChangeRelay;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHoldReaper;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndexLoader;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+beans still created on startup with spring.main.lazy-initialization (prod profile): the index has to be loaded before
+the first booking, the bitmap file has to be closed on shutdown, and the relay and the hold reaper only run once they
+exist
+*/
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(RoomReservationIndexLoader.class, RoomOccupancyBitmap.class,
+                ReservationChangeRelay.class, RoomHoldReaper.class);
+    }
+}
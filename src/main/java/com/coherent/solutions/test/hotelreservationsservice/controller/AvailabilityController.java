@@ -0,0 +1,35 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.AvailabilityResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.service.AvailabilityService;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.DatesValidations;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/availability")
+@RequiredArgsConstructor
+public class AvailabilityController {
+
+    private final String INVALID_DATE_RANGE = "Invalid date range";
+    private final AvailabilityService availabilityService;
+
+    @GetMapping
+    public ResponseEntity<AvailabilityResponseDTO> getFreeRooms(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start
+            , @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+
+        if (!DatesValidations.areDatesValid(start, end)) {
+            throw new BadRequestException(INVALID_DATE_RANGE);
+        }
+
+        return ResponseEntity.ok(availabilityService.getFreeRooms(start, end));
+    }
+}
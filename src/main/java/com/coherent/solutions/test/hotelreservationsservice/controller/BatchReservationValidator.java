@@ -0,0 +1,106 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.DatesValidations;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+each reservation of a batch is validated on its own: invalid ones get their result right away and the valid ones
+are handed to the service, whose results are then put back at the index of their reservation in the request.
+a group is all or nothing, a single invalid reservation rejects it
+*/
+@Component
+@RequiredArgsConstructor
+public class BatchReservationValidator {
+
+    private final String INVALID_DATE_RANGE = "Invalid date range";
+    private final String MISSING_RESERVATION = "reservation must not be null";
+    private final String INVALID_BATCH_SIZE = "batch must have between 1 and %d reservations";
+    private final String INVALID_GROUP_SIZE = "group must have between 1 and %d reservations";
+    private final String INVALID_GROUP_RESERVATION = "reservation %d of the group: %s";
+    private final int MAX_BATCH_SIZE = 1000;
+    private final int MAX_GROUP_SIZE = 200;
+    private final Validator validator;
+
+    public BatchValidation validate(List<ReservationRequestDTO> reservationRequestDTOs) {
+
+        if (reservationRequestDTOs.isEmpty() || reservationRequestDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException(String.format(INVALID_BATCH_SIZE, MAX_BATCH_SIZE));
+        }
+
+        BatchReservationResultDTO[] results = new BatchReservationResultDTO[reservationRequestDTOs.size()];
+        List<ReservationRequestDTO> validRequests = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+
+        for (int index = 0; index < reservationRequestDTOs.size(); index++) {
+            List<String> errors = findErrors(reservationRequestDTOs.get(index));
+            if (errors.isEmpty()) {
+                validRequests.add(reservationRequestDTOs.get(index));
+                validIndexes.add(index);
+            } else {
+                results[index] = BatchReservationResultDTO.builder()
+                        .index(index)
+                        .status(BatchReservationResultDTO.Status.INVALID)
+                        .errors(errors)
+                        .build();
+            }
+        }
+        return new BatchValidation(results, validRequests, validIndexes);
+    }
+
+    public void validateGroup(List<ReservationRequestDTO> reservationRequestDTOs) {
+
+        if (reservationRequestDTOs.isEmpty() || reservationRequestDTOs.size() > MAX_GROUP_SIZE) {
+            throw new BadRequestException(String.format(INVALID_GROUP_SIZE, MAX_GROUP_SIZE));
+        }
+
+        for (int index = 0; index < reservationRequestDTOs.size(); index++) {
+            List<String> errors = findErrors(reservationRequestDTOs.get(index));
+            if (!errors.isEmpty()) {
+                throw new BadRequestException(String.format(INVALID_GROUP_RESERVATION, index, String.join(", ", errors)));
+            }
+        }
+    }
+
+    //savedResults are the results of validRequests, in the same order
+    public List<BatchReservationResultDTO> merge(BatchValidation validation, List<BatchReservationResultDTO> savedResults) {
+        for (int i = 0; i < savedResults.size(); i++) {
+            BatchReservationResultDTO result = savedResults.get(i);
+            result.setIndex(validation.validIndexes().get(i));
+            validation.results()[validation.validIndexes().get(i)] = result;
+        }
+        return Arrays.asList(validation.results());
+    }
+
+    //a null element of the json array is reported like any other invalid reservation
+    private List<String> findErrors(ReservationRequestDTO reservationRequestDTO) {
+        if (reservationRequestDTO == null) {
+            return List.of(MISSING_RESERVATION);
+        }
+
+        List<String> errors = validator.validate(reservationRequestDTO).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        if (reservationRequestDTO.getStartDate() == null || reservationRequestDTO.getEndDate() == null
+                || !DatesValidations.areDatesValid(reservationRequestDTO.getStartDate(), reservationRequestDTO.getEndDate())) {
+            errors.add(INVALID_DATE_RANGE);
+        }
+        return errors;
+    }
+
+    public record BatchValidation(BatchReservationResultDTO[] results, List<ReservationRequestDTO> validRequests
+            , List<Integer> validIndexes) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.controller.utils.ETags;
+import com.coherent.solutions.test.hotelreservationsservice.controller.utils.ServerSentEvents;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReactiveReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+//same api as ReservationController, served by webflux with the reactive profile
+@RestController
+@Profile("reactive")
+@RequestMapping("/reservation")
+@RequiredArgsConstructor
+public class ReactiveReservationController {
+
+    private final ReactiveReservationService reactiveReservationService;
+    private final BatchReservationValidator batchReservationValidator;
+    private final ReservationRequestValidator reservationRequestValidator;
+
+    //every reservation is written to the json array as it is read, at the pace the client reads the response
+    @GetMapping(params = {"!after", "!limit"})
+    public Flux<ReservationResponseDTO> getAllReservations() {
+        return reactiveReservationService.getReservations();
+    }
+
+    //keyset pagination, pages are small enough to be collected to know if there is a next one
+    @GetMapping
+    public Mono<ResponseEntity<List<ReservationResponseDTO>>> getReservationsPage(@RequestParam(required = false) Integer after
+            , @RequestParam(required = false) Integer limit, ServerHttpRequest request) {
+
+        int pageAfter = after == null ? 0 : after;
+        int pageLimit = reservationRequestValidator.pageLimit(limit);
+
+        return page(reactiveReservationService.getReservations(pageAfter, pageLimit), pageLimit, request);
+    }
+
+    /*
+    reservations of a client by the start of the name (match=prefix, the default) or by any part of it
+    (match=contains, 3 characters at least), ignoring case and accents. room and from/to (reservations with nights
+    in between) narrow the search down. pages like GET /reservation with after and limit
+    */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<ReservationResponseDTO>>> searchReservations(@RequestParam String client
+            , @RequestParam(defaultValue = "prefix") String match
+            , @RequestParam(required = false) Integer room
+            , @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from
+            , @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            , @RequestParam(defaultValue = "0") int after
+            , @RequestParam(required = false) Integer limit
+            , ServerHttpRequest request) {
+
+        int pageLimit = reservationRequestValidator.pageLimit(limit);
+
+        ReservationSearchDTO search = reservationRequestValidator.searchOf(client, match, room, from, to);
+        return page(reactiveReservationService.searchReservations(search, after, pageLimit), pageLimit, request);
+    }
+
+    //when If-None-Match has the current ETag webflux answers 304 Not Modified and the body is not written
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ReservationResponseDTO>> getReservation(@PathVariable int id) {
+        return reactiveReservationService.getReservation(id)
+                .map(reservation -> ResponseEntity.ok()
+                        .eTag(ETags.of(reservation.getVersion()))
+                        .body(reservation));
+    }
+
+    @GetMapping("/room/{roomNumber}")
+    public Flux<ReservationResponseDTO> getRoomReservations(@PathVariable int roomNumber) {
+        return reactiveReservationService.getRoomReservations(roomNumber);
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public Flux<ReservationResponseDTO> streamAllReservations() {
+        return reactiveReservationService.getReservations();
+    }
+
+    //published changes after the given sequence, consumers keep the last sequence they read and ask for the next ones
+    @GetMapping("/changes")
+    public Flux<ReservationChangeDTO> getChanges(@RequestParam(defaultValue = "0") long after
+            , @RequestParam(required = false) Integer limit) {
+
+        int pageLimit = reservationRequestValidator.pageLimit(limit);
+
+        return reactiveReservationService.getChanges(after, pageLimit);
+    }
+
+    /*
+    created, updated and deleted reservations as server sent events, instead of polling the whole list.
+    with Last-Event-ID the events after it are sent first, or a RELOAD event when they are not all kept
+    */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ReservationEventDTO>> streamReservationEvents(
+            @RequestHeader(value = ServerSentEvents.LAST_EVENT_ID, required = false) Long lastEventId) {
+        return reactiveReservationService.getReservationEvents(lastEventId)
+                .map(ServerSentEvents::of);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ReservationResponseDTO>> saveReservation(@RequestBody @Valid ReservationRequestDTO reservationRequestDTO) {
+
+        reservationRequestValidator.validateDates(reservationRequestDTO);
+
+        return reactiveReservationService.saveReservation(reservationRequestDTO)
+                .map(reservation -> ResponseEntity.status(HttpStatus.CREATED)
+                        .eTag(ETags.of(reservation.getVersion()))
+                        .body(reservation));
+    }
+
+    @PostMapping(value = "/batch")
+    public Mono<List<BatchReservationResultDTO>> saveReservations(@RequestBody List<ReservationRequestDTO> reservationRequestDTOs) {
+
+        BatchReservationValidator.BatchValidation validation = batchReservationValidator.validate(reservationRequestDTOs);
+
+        Mono<List<BatchReservationResultDTO>> savedResults = validation.validRequests().isEmpty()
+                ? Mono.just(List.of())
+                : reactiveReservationService.saveReservations(validation.validRequests());
+
+        return savedResults.map(results -> batchReservationValidator.merge(validation, results));
+    }
+
+    //all or nothing, like the non reactive endpoint
+    @PostMapping(value = "/group")
+    public Mono<ResponseEntity<List<ReservationResponseDTO>>> saveReservationGroup(@RequestBody List<ReservationRequestDTO> reservationRequestDTOs) {
+
+        batchReservationValidator.validateGroup(reservationRequestDTOs);
+
+        return reactiveReservationService.saveReservationGroup(reservationRequestDTOs)
+                .map(reservations -> ResponseEntity.status(HttpStatus.CREATED).body(reservations));
+    }
+
+    @PostMapping(value = "/hold")
+    public Mono<ResponseEntity<RoomHoldResponseDTO>> holdRoom(@RequestBody @Valid RoomHoldRequestDTO holdRequestDTO) {
+
+        reservationRequestValidator.validateDates(holdRequestDTO.getStartDate(), holdRequestDTO.getEndDate());
+
+        return reactiveReservationService.holdRoom(holdRequestDTO)
+                .map(hold -> ResponseEntity.status(HttpStatus.CREATED).body(hold));
+    }
+
+    @DeleteMapping("/hold/{holdId}")
+    public Mono<ResponseEntity<Void>> releaseHold(@PathVariable UUID holdId) {
+        return reactiveReservationService.releaseHold(holdId)
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.ACCEPTED)));
+    }
+
+    @PutMapping(value = "/{id}")
+    public Mono<ResponseEntity<ReservationResponseDTO>> updateReservation(@PathVariable int id
+            , @RequestBody @Valid ReservationRequestDTO reservationRequestDTO
+            , @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        reservationRequestValidator.validateDates(reservationRequestDTO);
+
+        return reactiveReservationService.updateReservation(id, reservationRequestDTO, ETags.parseIfMatch(ifMatch))
+                .map(reservation -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .eTag(ETags.of(reservation.getVersion()))
+                        .body(reservation));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteReservation(@PathVariable int id) {
+        return reactiveReservationService.deleteReservation(id)
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.ACCEPTED)));
+    }
+
+    //a Link header points to the next page while pages are full
+    private Mono<ResponseEntity<List<ReservationResponseDTO>>> page(Flux<ReservationResponseDTO> reservationsPage
+            , int pageLimit, ServerHttpRequest request) {
+        return reservationsPage
+                .collectList()
+                .map(reservations -> {
+                    if (reservations.size() < pageLimit) {
+                        return ResponseEntity.ok(reservations);
+                    }
+                    String nextPage = UriComponentsBuilder.fromUri(request.getURI())
+                            .replaceQueryParam("after", reservations.get(reservations.size() - 1).getId())
+                            .replaceQueryParam("limit", pageLimit)
+                            .toUriString();
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage))
+                            .body(reservations);
+                });
+    }
+}
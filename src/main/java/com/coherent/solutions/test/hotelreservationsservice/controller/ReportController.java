@@ -0,0 +1,51 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyReportDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/reports")
+@RequiredArgsConstructor
+public class ReportController {
+
+    private final String INVALID_DATE_RANGE = "Invalid date range";
+    private final String INVALID_REPORT_LENGTH = "reports can not be longer than %d nights";
+    private final String INVALID_GROUP_BY = "groupBy must be room, floor or hotel";
+    private final int MAX_REPORT_NIGHTS = 366;
+    private final ReportService reportService;
+
+    //occupied rooms each night from `from` to `to` excluded, by room, by floor or for the whole hotel. past dates are allowed
+    @GetMapping("/occupancy")
+    public ResponseEntity<OccupancyReportDTO> getOccupancy(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from
+            , @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            , @RequestParam(defaultValue = "room") String groupBy) {
+
+        if (!to.isAfter(from)) {
+            throw new BadRequestException(INVALID_DATE_RANGE);
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_REPORT_NIGHTS) {
+            throw new BadRequestException(String.format(INVALID_REPORT_LENGTH, MAX_REPORT_NIGHTS));
+        }
+
+        return ResponseEntity.ok(reportService.getOccupancy(from, to, parseGroupBy(groupBy)));
+    }
+
+    private OccupancyReportDTO.GroupBy parseGroupBy(String groupBy) {
+        try {
+            return OccupancyReportDTO.GroupBy.valueOf(groupBy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_GROUP_BY);
+        }
+    }
+}
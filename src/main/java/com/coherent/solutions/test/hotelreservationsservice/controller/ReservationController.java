@@ -1,49 +1,216 @@
 package com.coherent.solutions.test.hotelreservationsservice.controller;
 
+import com.coherent.solutions.test.hotelreservationsservice.controller.utils.ETags;
+import com.coherent.solutions.test.hotelreservationsservice.controller.utils.ServerSentEvents;
 import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
 import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
-import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
 import com.coherent.solutions.test.hotelreservationsservice.service.ReservationService;
-import com.coherent.solutions.test.hotelreservationsservice.service.utils.DatesValidations;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/reservation")
 @RequiredArgsConstructor
 public class ReservationController {
 
-    private final String INVALID_DATE_RANGE = "Invalid date range";
+    private final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
     private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
+    private final BatchReservationValidator batchReservationValidator;
+    private final ReservationRequestValidator reservationRequestValidator;
 
+    /*
+    without after or limit every reservation is returned, as before.
+    with any of them reservations are returned by ascending id, starting after the given id (keyset pagination),
+    a Link header points to the next page while pages are full
+    */
     @GetMapping
-    public ResponseEntity<List<ReservationResponseDTO>> getAllReservations() {
-        List<ReservationResponseDTO> reservations = reservationService.getReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<List<ReservationResponseDTO>> getAllReservations(@RequestParam(required = false) Integer after
+            , @RequestParam(required = false) Integer limit) {
+
+        if (after == null && limit == null) {
+            List<ReservationResponseDTO> reservations = reservationService.getReservations();
+            return ResponseEntity.ok(reservations);
+        }
+
+        int pageAfter = after == null ? 0 : after;
+        int pageLimit = reservationRequestValidator.pageLimit(limit);
+
+        return page(reservationService.getReservations(pageAfter, pageLimit), pageLimit);
+    }
+
+    /*
+    reservations of a client by the start of the name (match=prefix, the default) or by any part of it
+    (match=contains, 3 characters at least), ignoring case and accents. room and from/to (reservations with nights
+    in between) narrow the search down. pages like GET /reservation with after and limit
+    */
+    @GetMapping("/search")
+    public ResponseEntity<List<ReservationResponseDTO>> searchReservations(@RequestParam String client
+            , @RequestParam(defaultValue = "prefix") String match
+            , @RequestParam(required = false) Integer room
+            , @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from
+            , @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+            , @RequestParam(defaultValue = "0") int after
+            , @RequestParam(required = false) Integer limit) {
+
+        int pageLimit = reservationRequestValidator.pageLimit(limit);
+
+        ReservationSearchDTO search = reservationRequestValidator.searchOf(client, match, room, from, to);
+        return page(reservationService.searchReservations(search, after, pageLimit), pageLimit);
+    }
+
+    //when If-None-Match has the current ETag spring answers 304 Not Modified and the body is not written
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationResponseDTO> getReservation(@PathVariable int id) {
+        ReservationResponseDTO reservation = reservationService.getReservation(id);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(reservation.getVersion()))
+                .body(reservation);
+    }
+
+    @GetMapping("/room/{roomNumber}")
+    public ResponseEntity<List<ReservationResponseDTO>> getRoomReservations(@PathVariable int roomNumber) {
+        return ResponseEntity.ok(reservationService.getRoomReservations(roomNumber));
+    }
+
+    //one reservation per line, written while rows are read from the database
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllReservations() {
+        StreamingResponseBody body = outputStream -> reservationService.streamReservations(reservation -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(reservation));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    //published changes after the given sequence, consumers keep the last sequence they read and ask for the next ones
+    @GetMapping("/changes")
+    public ResponseEntity<List<ReservationChangeDTO>> getChanges(@RequestParam(defaultValue = "0") long after
+            , @RequestParam(required = false) Integer limit) {
+
+        int pageLimit = reservationRequestValidator.pageLimit(limit);
+
+        return ResponseEntity.ok(reservationService.getChanges(after, pageLimit));
+    }
+
+    /*
+    created, updated and deleted reservations as server sent events, instead of polling the whole list.
+    with Last-Event-ID the events after it are sent first, or a RELOAD event when they are not all kept
+    */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ReservationEventDTO>> streamReservationEvents(
+            @RequestHeader(value = ServerSentEvents.LAST_EVENT_ID, required = false) Long lastEventId) {
+        return reservationService.getReservationEvents(lastEventId)
+                .map(ServerSentEvents::of);
     }
 
     @PostMapping
     public ResponseEntity<ReservationResponseDTO> saveReservation(@RequestBody @Valid ReservationRequestDTO reservationRequestDTO) {
 
-        validateDates(reservationRequestDTO);
+        reservationRequestValidator.validateDates(reservationRequestDTO);
 
         ReservationResponseDTO reservation = reservationService.saveReservation(reservationRequestDTO);
-        return new ResponseEntity(reservation, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETags.of(reservation.getVersion()))
+                .body(reservation);
+    }
+
+    /*
+    each reservation is validated on its own, invalid ones are reported and the rest are saved.
+    results are returned in the same order as the request
+    */
+    @PostMapping(value = "/batch")
+    public ResponseEntity<List<BatchReservationResultDTO>> saveReservations(@RequestBody List<ReservationRequestDTO> reservationRequestDTOs) {
+
+        BatchReservationValidator.BatchValidation validation = batchReservationValidator.validate(reservationRequestDTOs);
+
+        List<BatchReservationResultDTO> savedResults = validation.validRequests().isEmpty()
+                ? List.of()
+                : reservationService.saveReservations(validation.validRequests());
+
+        return ResponseEntity.ok(batchReservationValidator.merge(validation, savedResults));
+    }
+
+    /*
+    a wedding or a conference: every reservation is booked or none is, a conflict with a booked room or within the
+    group answers 400 with the index of every conflicting reservation. saved reservations are returned in the same
+    order as the request
+    */
+    @PostMapping(value = "/group")
+    public ResponseEntity<List<ReservationResponseDTO>> saveReservationGroup(@RequestBody List<ReservationRequestDTO> reservationRequestDTOs) {
+
+        batchReservationValidator.validateGroup(reservationRequestDTOs);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(reservationService.saveReservationGroup(reservationRequestDTOs));
+    }
+
+    /*
+    keeps a room for a guest while they pay, for hotel.holds.ttl. other bookings and holds of its nights are rejected
+    until it expires, the reservation made with its id as holdId releases it
+    */
+    @PostMapping(value = "/hold")
+    public ResponseEntity<RoomHoldResponseDTO> holdRoom(@RequestBody @Valid RoomHoldRequestDTO holdRequestDTO) {
+
+        reservationRequestValidator.validateDates(holdRequestDTO.getStartDate(), holdRequestDTO.getEndDate());
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(reservationService.holdRoom(holdRequestDTO));
     }
 
+    //the guest gave up before paying, the room is free again right away. a hold already reaped after it expired is a 404
+    @DeleteMapping("/hold/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable UUID holdId) {
+        reservationService.releaseHold(holdId);
+        return new ResponseEntity<>(HttpStatus.ACCEPTED);
+    }
+
+    /*
+    with If-Match the reservation is only updated while its version is still the given ETag (412 otherwise),
+    an update racing with another one on the same reservation gets a 409
+    */
     @PutMapping(value = "/{id}")
     public ResponseEntity<ReservationResponseDTO> updateReservation(@PathVariable int id
-            , @RequestBody  @Valid ReservationRequestDTO reservationRequestDTO) {
+            , @RequestBody  @Valid ReservationRequestDTO reservationRequestDTO
+            , @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        validateDates(reservationRequestDTO);
+        reservationRequestValidator.validateDates(reservationRequestDTO);
 
-        ReservationResponseDTO reservation = reservationService.updateReservation(id, reservationRequestDTO);
-        return new ResponseEntity(reservation, HttpStatus.ACCEPTED);
+        ReservationResponseDTO reservation = reservationService.updateReservation(id, reservationRequestDTO, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .eTag(ETags.of(reservation.getVersion()))
+                .body(reservation);
     }
 
     @DeleteMapping("/{id}")
@@ -52,9 +219,18 @@ public class ReservationController {
         return new ResponseEntity<>(HttpStatus.ACCEPTED);
     }
 
-    private void validateDates(ReservationRequestDTO reservationRequestDTO) {
-        if (!DatesValidations.areDatesValid(reservationRequestDTO.getStartDate(), reservationRequestDTO.getEndDate())) {
-            throw new BadRequestException(INVALID_DATE_RANGE);
+    //a Link header points to the next page while pages are full
+    private ResponseEntity<List<ReservationResponseDTO>> page(List<ReservationResponseDTO> reservations, int pageLimit) {
+        if (reservations.size() < pageLimit) {
+            return ResponseEntity.ok(reservations);
         }
+
+        String nextPage = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", reservations.get(reservations.size() - 1).getId())
+                .replaceQueryParam("limit", pageLimit)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", nextPage))
+                .body(reservations);
     }
 }
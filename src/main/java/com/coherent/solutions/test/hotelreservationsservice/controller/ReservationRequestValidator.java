@@ -0,0 +1,67 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.ClientNameIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.ClientNames;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.DatesValidations;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+//validations of the /reservation api shared by ReservationController and ReactiveReservationController
+@Component
+public class ReservationRequestValidator {
+
+    private final String INVALID_DATE_RANGE = "Invalid date range";
+    private final String INVALID_PAGE_LIMIT = "limit must be between 1 and %d";
+    private final String INVALID_SEARCH_MATCH = "match must be prefix or contains";
+    private final String INVALID_SEARCH_CLIENT = "client must have %d characters at least";
+    private final int DEFAULT_PAGE_LIMIT = 100;
+    private final int MAX_PAGE_LIMIT = 1000;
+
+    //the limit of a page, DEFAULT_PAGE_LIMIT when none is given
+    public int pageLimit(Integer limit) {
+        int pageLimit = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        if (pageLimit < 1 || pageLimit > MAX_PAGE_LIMIT) {
+            throw new BadRequestException(String.format(INVALID_PAGE_LIMIT, MAX_PAGE_LIMIT));
+        }
+        return pageLimit;
+    }
+
+    public ReservationSearchDTO searchOf(String client, String match, Integer room, LocalDate from, LocalDate to) {
+        ReservationSearchDTO.Match searchMatch;
+        try {
+            searchMatch = ReservationSearchDTO.Match.valueOf(match.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(INVALID_SEARCH_MATCH);
+        }
+
+        int minLength = searchMatch == ReservationSearchDTO.Match.CONTAINS ? ClientNameIndex.MIN_SEARCH_LENGTH : 1;
+        if (ClientNames.normalize(client).length() < minLength) {
+            throw new BadRequestException(String.format(INVALID_SEARCH_CLIENT, minLength));
+        }
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new BadRequestException(INVALID_DATE_RANGE);
+        }
+
+        return ReservationSearchDTO.builder()
+                .client(client)
+                .match(searchMatch)
+                .roomNumber(room)
+                .from(from)
+                .to(to)
+                .build();
+    }
+
+    public void validateDates(ReservationRequestDTO reservationRequestDTO) {
+        validateDates(reservationRequestDTO.getStartDate(), reservationRequestDTO.getEndDate());
+    }
+
+    public void validateDates(LocalDate startDate, LocalDate endDate) {
+        if (!DatesValidations.areDatesValid(startDate, endDate)) {
+            throw new BadRequestException(INVALID_DATE_RANGE);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller.utils;
+
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.PreconditionFailedException;
+
+//the ETag of a reservation is its version
+public class ETags {
+
+    private static final String INVALID_IF_MATCH = "If-Match must be the ETag of the reservation";
+
+    public static String of(Long version) {
+        return String.valueOf(version);
+    }
+
+    //* matches any version (null), weak ETags never match for If-Match
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            throw new PreconditionFailedException(INVALID_IF_MATCH);
+        }
+        try {
+            return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException(INVALID_IF_MATCH);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller.utils;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import org.springframework.http.codec.ServerSentEvent;
+
+//events have no name so EventSource clients get all of them in onmessage, the type is in the data
+public class ServerSentEvents {
+
+    //sent back by EventSource clients when they reconnect
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    public static ServerSentEvent<ReservationEventDTO> of(ReservationEventDTO event) {
+        return ServerSentEvent.builder(event)
+                .id(String.valueOf(event.getId()))
+                .build();
+    }
+}
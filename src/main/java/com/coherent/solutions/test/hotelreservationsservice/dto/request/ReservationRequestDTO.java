@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 @Data
 @AllArgsConstructor
@@ -26,4 +27,7 @@ public class ReservationRequestDTO {
     private LocalDate startDate;
 
     private LocalDate endDate;
+
+    //the hold of the room (POST /reservation/hold) this reservation is made from, if any. it is released once booked
+    private UUID holdId;
 }
@@ -0,0 +1,28 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationSearchDTO {
+
+    public enum Match {
+        PREFIX,
+        CONTAINS
+    }
+
+    private String client;
+    private Match match;
+    //optional, only reservations of the room
+    private Integer roomNumber;
+    //optional, only reservations with nights from `from` on and before `to`
+    private LocalDate from;
+    private LocalDate to;
+}
@@ -0,0 +1,23 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.request;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RoomHoldRequestDTO {
+
+    @Min(value = 1, message = "roomNumber must be greater than 0")
+    private int roomNumber;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+}
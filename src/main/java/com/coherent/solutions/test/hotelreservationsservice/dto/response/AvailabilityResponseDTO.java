@@ -0,0 +1,19 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AvailabilityResponseDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Integer> roomNumbers;
+}
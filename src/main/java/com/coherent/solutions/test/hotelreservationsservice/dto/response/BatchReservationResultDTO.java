@@ -0,0 +1,27 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchReservationResultDTO {
+
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+
+    //position of the reservation in the request
+    private int index;
+    private Status status;
+    private ReservationResponseDTO reservation;
+    private List<String> errors;
+}
@@ -0,0 +1,23 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OccupancyDTO {
+    //room or floor number, 0 for the whole hotel
+    private int group;
+    private int rooms;
+    private long roomNights;
+    //room nights over rooms times nights
+    private double occupancyRate;
+    //occupied rooms of the group each night of the report
+    private List<Integer> occupiedRooms;
+}
@@ -0,0 +1,28 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OccupancyReportDTO {
+
+    public enum GroupBy {
+        ROOM,
+        FLOOR,
+        HOTEL
+    }
+
+    //nights from the from date included to the to date excluded, like a reservation
+    private LocalDate from;
+    private LocalDate to;
+    private GroupBy groupBy;
+    private List<OccupancyDTO> groups;
+}
@@ -0,0 +1,24 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationChangeDTO {
+
+    //consumers read the changes after the last sequence they got
+    private long sequence;
+    private ReservationChange.Type type;
+    private int reservationId;
+    private Instant changedAt;
+    //the reservation after the change, null when it was deleted
+    private ReservationResponseDTO reservation;
+}
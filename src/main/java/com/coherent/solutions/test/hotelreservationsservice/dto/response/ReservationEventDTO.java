@@ -0,0 +1,29 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationEventDTO {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        //the events after Last-Event-ID can not be sent, the reservations have to be read again
+        RELOAD
+    }
+
+    //increases with every event, clients send the last one they got back as Last-Event-ID to resume
+    private long id;
+    private Type type;
+    //0 for RELOAD
+    private int reservationId;
+    //the reservation after the change, null when it was deleted
+    private ReservationResponseDTO reservation;
+}
@@ -17,4 +17,7 @@ public class ReservationResponseDTO {
     private String clientFullName;
     private int roomNumber;
     private List<LocalDate> reservationDates;
+
+    //also sent as the ETag header, PUT /reservation/{id} takes it back in If-Match
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.coherent.solutions.test.hotelreservationsservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RoomHoldResponseDTO {
+    //sent back as holdId when booking the held room
+    private UUID id;
+    private int roomNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Instant expiresAt;
+}
@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.exceptions;
+
+public class ConflictException extends RuntimeException{
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -1,17 +1,40 @@
 package com.coherent.solutions.test.hotelreservationsservice.exceptions;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
 @org.springframework.web.bind.annotation.ControllerAdvice
+@RequiredArgsConstructor
 public class ControllerAdvice {
 
+    private final String ERRORS_METRIC = "reservation.errors";
+    private final String ERROR_TYPE_TAG = "type";
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler(RoomAlreadyBookedException.class)
+    public ResponseEntity<ErrorMessage> handleRoomAlreadyBookedException(Exception e) {
+        countError("room_already_booked");
+        return handleBadRequestException(e);
+    }
+
+    @ExceptionHandler(ReservationExpiredException.class)
+    public ResponseEntity<ErrorMessage> handleReservationExpiredException(Exception e) {
+        countError("reservation_expired");
+        return handleBadRequestException(e);
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorMessage> handleBadRequestException(Exception e) {
         ErrorMessage error = ErrorMessage.builder()
@@ -20,8 +43,56 @@ public class ControllerAdvice {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({MissingServletRequestParameterException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorMessage> handleInvalidRequestParameter(Exception e) {
+        ErrorMessage error = ErrorMessage.builder()
+                .errors(Arrays.asList(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorMessage> handlePreconditionFailedException(Exception e) {
+        countError("reservation_modified");
+        ErrorMessage error = ErrorMessage.builder()
+                .errors(Arrays.asList(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    //another process inserted the room_lock row of the room first, the booking can be retried
+    @ExceptionHandler(RoomBeingBookedException.class)
+    public ResponseEntity<ErrorMessage> handleRoomBeingBookedException(Exception e) {
+        countError("room_being_booked");
+        return conflict(e);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorMessage> handleConflictException(Exception e) {
+        countError("reservation_modified");
+        return conflict(e);
+    }
+
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ErrorMessage> handleHoldNotFoundException(Exception e) {
+        countError("hold_not_found");
+        return notFound(e);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorMessage> handleResourceNotFoundException(Exception e) {
+        countError("reservation_not_found");
+        return notFound(e);
+    }
+
+    private ResponseEntity<ErrorMessage> conflict(Exception e) {
+        ErrorMessage error = ErrorMessage.builder()
+                .errors(Arrays.asList(e.getMessage()))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    private ResponseEntity<ErrorMessage> notFound(Exception e) {
         ErrorMessage error = ErrorMessage.builder()
                 .errors(Arrays.asList(e.getMessage()))
                 .build();
@@ -46,4 +117,28 @@ public class ControllerAdvice {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    //webflux counterpart of MethodArgumentNotValidException
+    @ExceptionHandler(WebExchangeBindException.class)
+    protected ResponseEntity<ErrorMessage> handleWebExchangeBind(WebExchangeBindException e) {
+        ErrorMessage error = ErrorMessage.builder()
+                .errors(e.getFieldErrors().stream()
+                .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.toList()))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    //webflux counterpart of missing or mistyped request parameters and unreadable bodies
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorMessage> handleServerWebInputException(ServerWebInputException e) {
+        ErrorMessage error = ErrorMessage.builder()
+                .errors(Arrays.asList(e.getReason()))
+                .build();
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    private void countError(String type) {
+        meterRegistry.counter(ERRORS_METRIC, ERROR_TYPE_TAG, type).increment();
+    }
+
 }
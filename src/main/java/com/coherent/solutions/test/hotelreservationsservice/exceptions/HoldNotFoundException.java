@@ -0,0 +1,7 @@
+package com.coherent.solutions.test.hotelreservationsservice.exceptions;
+
+public class HoldNotFoundException extends ResourceNotFoundException{
+    public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.exceptions;
+
+public class PreconditionFailedException extends RuntimeException{
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.exceptions;
+
+public class ReservationExpiredException extends BadRequestException{
+
+    public ReservationExpiredException(String message) {
+        super(message);
+    }
+
+}
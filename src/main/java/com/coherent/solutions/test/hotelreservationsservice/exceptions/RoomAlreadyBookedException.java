@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.exceptions;
+
+public class RoomAlreadyBookedException extends BadRequestException{
+
+    public RoomAlreadyBookedException(String message) {
+        super(message);
+    }
+
+}
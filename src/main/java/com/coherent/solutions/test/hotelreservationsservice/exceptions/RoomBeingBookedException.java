@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.exceptions;
+
+public class RoomBeingBookedException extends ConflictException{
+
+    public RoomBeingBookedException(String message) {
+        super(message);
+    }
+
+}
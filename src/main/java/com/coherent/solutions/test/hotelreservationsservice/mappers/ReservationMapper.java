@@ -1,11 +1,16 @@
 package com.coherent.solutions.test.hotelreservationsservice.mappers;
 
 import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
 import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
 import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationRow;
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
-import org.mapstruct.factory.Mappers;
+import org.mapstruct.MappingTarget;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -14,15 +19,51 @@ import java.util.List;
 @Mapper
 public interface ReservationMapper {
 
-    ReservationMapper INSTANCE = Mappers.getMapper(ReservationMapper.class);
+    //the implementation generated by mapstruct, created directly instead of looked up by Mappers.getMapper on startup
+    ReservationMapper INSTANCE = new ReservationMapperImpl();
+
     @Mapping(target = "id", ignore = true)
-    @Mapping(target = "reservationDates", expression = "java(mapDates(reservationRequest))")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "clientNameKey", ignore = true)
     Reservation reservationRequestDTOToReservation(ReservationRequestDTO reservationRequest);
 
+    //copies the request into a loaded reservation, so it is updated in place instead of merged
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "clientNameKey", ignore = true)
+    void updateReservationFromRequest(ReservationRequestDTO reservationRequest, @MappingTarget Reservation reservation);
+
+    @Mapping(target = "reservationDates", expression = "java(mapDates(reservation))")
     ReservationResponseDTO reservationToReservationResponseDTO(Reservation reservation);
 
-    default List<LocalDate> mapDates(ReservationRequestDTO value) {
+    @Mapping(target = "reservationDates", expression = "java(mapDates(reservationRow))")
+    ReservationResponseDTO reservationRowToReservationResponseDTO(ReservationRow reservationRow);
+
+    @Mapping(target = "reservation", expression = "java(mapReservation(reservationChange))")
+    ReservationChangeDTO reservationChangeToReservationChangeDTO(ReservationChange reservationChange);
+
+    RoomHoldResponseDTO roomHoldToRoomHoldResponseDTO(RoomHold roomHold);
+
+    default List<LocalDate> mapDates(Reservation value) {
         return Arrays.asList( value.getStartDate(),
                 value.getEndDate());
     }
+
+    default List<LocalDate> mapDates(ReservationRow value) {
+        return Arrays.asList( value.getStartDate(),
+                value.getEndDate());
+    }
+
+    default ReservationResponseDTO mapReservation(ReservationChange value) {
+        if (value.getType() == ReservationChange.Type.DELETED) {
+            return null;
+        }
+        return ReservationResponseDTO.builder()
+                .id(value.getReservationId())
+                .clientFullName(value.getClientFullName())
+                .roomNumber(value.getRoomNumber())
+                .reservationDates(Arrays.asList(value.getStartDate(), value.getEndDate()))
+                .version(value.getVersion())
+                .build();
+    }
 }
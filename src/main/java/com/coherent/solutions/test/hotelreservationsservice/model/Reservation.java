@@ -1,41 +1,66 @@
 package com.coherent.solutions.test.hotelreservationsservice.model;
 
+import com.coherent.solutions.test.hotelreservationsservice.config.SecondLevelCacheConfig;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.ClientNames;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Entity
-@Table(name = "reservation")
+@Table(name = "reservation", indexes = {
+        @Index(name = "idx_reservation_room_dates", columnList = "room_number, start_date, end_date"),
+        @Index(name = "idx_reservation_client_name_key", columnList = "client_name_key, id")
+})
+//reads by id are served from the second level cache, updates and deletes replace the cached entry when they commit
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.RESERVATION_REGION)
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 public class Reservation {
+    //ids are taken from the sequence 50 at a time, this also lets hibernate batch inserts (IDENTITY would not)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     private int id;
 
     @Column(name = "client_full_name", nullable = false)
     private String clientFullName;
 
+    /*
+    the normalized client name, searched by prefix over idx_reservation_client_name_key. kept in line with
+    clientFullName on every insert and update, ClientNameKeyMigration fills it for older reservations
+    */
+    @Column(name = "client_name_key")
+    private String clientNameKey;
+
     @Column(name = "room_number", nullable = false)
     private int roomNumber;
 
-    //refer to https://medium.com/@saeiddrv/jpa-hibernate-mapping-types-891686bc6cfd
-    @ElementCollection
-    @Column(name = "reservation_date")
-    @CollectionTable(
-            name = "reservation_dates",
-            joinColumns = @JoinColumn(name="reservation_id"))
-    private List<LocalDate> reservationDates;
     /*
-    improvement: change this to be startDate and EndDate will make it easier to find by date ranges
-      LocalDate startDate;
-      LocalDate endDate;
+    dates used to live in the reservation_dates collection table, columns are nullable so they can be added to
+    databases that already have reservations, ReservationDatesMigration fills them on startup
     */
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    //increased by hibernate on every update, the default lets the column be added to existing databases
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeClientName() {
+        clientNameKey = ClientNames.normalize(clientFullName);
+    }
 }
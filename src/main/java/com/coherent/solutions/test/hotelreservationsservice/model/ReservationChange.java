@@ -0,0 +1,67 @@
+package com.coherent.solutions.test.hotelreservationsservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/*
+append only log of the changes of reservations, written in the same transaction as the change.
+ids are taken in insert order, but transactions on different rooms can commit out of that order, so consumers read
+by sequence instead: it is set by ReservationChangeRelay when the change is published, in the order it publishes them
+*/
+@Entity
+@Table(name = "reservation_change_log", indexes = {
+        @Index(name = "idx_reservation_change_log_sequence", columnList = "change_sequence", unique = true)
+})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ReservationChange {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_change_log_seq")
+    @SequenceGenerator(name = "reservation_change_log_seq", sequenceName = "reservation_change_log_seq", allocationSize = 50)
+    private long id;
+
+    //null until the change is published
+    @Column(name = "change_sequence")
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "reservation_id", nullable = false)
+    private int reservationId;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    //the reservation after the change, all null when it was deleted
+    @Column(name = "client_full_name")
+    private String clientFullName;
+
+    @Column(name = "room_number")
+    private Integer roomNumber;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "version")
+    private Long version;
+}
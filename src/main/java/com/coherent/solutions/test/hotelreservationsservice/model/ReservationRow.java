@@ -0,0 +1,37 @@
+package com.coherent.solutions.test.hotelreservationsservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+//r2dbc view of the reservation table, only read. the table is still created and written through Reservation
+@Table("reservation")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ReservationRow {
+    @Id
+    private int id;
+
+    @Column("client_full_name")
+    private String clientFullName;
+
+    @Column("room_number")
+    private int roomNumber;
+
+    @Column("start_date")
+    private LocalDate startDate;
+
+    @Column("end_date")
+    private LocalDate endDate;
+
+    @Column("version")
+    private Long version;
+}
@@ -0,0 +1,61 @@
+package com.coherent.solutions.test.hotelreservationsservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/*
+a room kept for a guest while they pay, until expiresAt. it blocks bookings of its nights like a reservation does,
+except the one made with its id.
+ids are random so a hold can not be guessed and booked by somebody else, implements Persistable like RoomLock
+so saving it is a plain insert
+*/
+@Entity
+@Table(name = "room_hold", indexes = {
+        @Index(name = "idx_room_hold_expires_at", columnList = "expires_at")
+})
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class RoomHold implements Persistable<UUID> {
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "room_number", nullable = false)
+    private int roomNumber;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
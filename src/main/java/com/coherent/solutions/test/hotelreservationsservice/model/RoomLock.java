@@ -0,0 +1,44 @@
+package com.coherent.solutions.test.hotelreservationsservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/*
+one row per room, bookings select it for update so writes to the same room are serialized by the database.
+implements Persistable so saving a new row is a plain insert, without selecting it first
+*/
+@Entity
+@Table(name = "room_lock")
+@NoArgsConstructor
+@Data
+public class RoomLock implements Persistable<Integer> {
+    @Id
+    @Column(name = "room_number")
+    private int roomNumber;
+
+    @Transient
+    private boolean isNew = true;
+
+    public RoomLock(int roomNumber) {
+        this.roomNumber = roomNumber;
+    }
+
+    @Override
+    public Integer getId() {
+        return roomNumber;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+//rows are emitted as they are read from the database, as fast as subscribers request them
+@Repository
+public interface ReactiveReservationRepository extends R2dbcRepository<ReservationRow, Integer> {
+    Flux<ReservationRow> findAllByOrderByIdAsc();
+
+    @Query("select * from reservation where id > :after order by id limit :limit")
+    Flux<ReservationRow> findPage(int after, int limit);
+
+    Flux<ReservationRow> findByRoomNumberOrderByStartDateAsc(int roomNumber);
+}
@@ -0,0 +1,23 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationChangeRepository extends CrudRepository<ReservationChange, Long> {
+
+    //changes not published yet, in the order they were written
+    List<ReservationChange> findBySequenceIsNullOrderByIdAsc(Limit limit);
+
+    //published changes, range scan over idx_reservation_change_log_sequence
+    List<ReservationChange> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Limit limit);
+
+    @Query("select max(c.sequence) from ReservationChange c")
+    Optional<Long> findLastSequence();
+}
@@ -1,37 +1,65 @@
 package com.coherent.solutions.test.hotelreservationsservice.repository;
 
+import com.coherent.solutions.test.hotelreservationsservice.config.SecondLevelCacheConfig;
 import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends CrudRepository<Reservation, Integer> {
     List<Reservation> findAll();
 
-    @Query(value = """
-        with dates (id, start_date, end_date) as (
-            select 
-            reservation_id,
-            min(reservation_date) as start_date,
-            max(reservation_date) as end_date
-            from reservation_dates
-            group by reservation_id
-        ) 
-        select 
-        r.id
-        ,r.client_full_name
-        ,r.room_number
-        ,dates.start_date
-        ,dates.end_date
-        from reservation as r
-        inner join dates on r.id = dates.id
-        where dates.end_date > ?1
-        and dates.start_date < ?2
-        and r.room_number = ?3
-        """, nativeQuery = true)
-    List<Reservation> findByReservationAndByOverlappingDates(LocalDate startDate, LocalDate endDate, int roomNumber);
+    List<Reservation> findByIdGreaterThanOrderByIdAsc(int id, Limit limit);
+
+    /*
+    the ids found are kept in the query cache, reservations are then read from the second level cache.
+    hibernate drops every cached result of the reservation table as soon as any reservation is written
+    */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.RESERVATION_QUERIES_REGION)
+    })
+    List<Reservation> findByRoomNumberOrderByStartDateAsc(int roomNumber);
+
+    List<Reservation> findByIdInOrderByIdAsc(Collection<Integer> ids);
+
+    /*
+    range scan over idx_reservation_client_name_key, the pattern is the prefix with its wildcards escaped, then %.
+    h2 would rather walk the primary key in id order and filter every row, the index has to be asked for.
+    searches are too varied to be worth caching, and being a select it never invalidates the cached reservations
+    */
+    @Query(nativeQuery = true, value = """
+        select r.*
+        from reservation r use index (idx_reservation_client_name_key)
+        where r.client_name_key like ?1 escape '\\'
+        and (?2 is null or r.room_number = ?2)
+        and (?3 is null or r.end_date > ?3)
+        and (?4 is null or r.start_date < ?4)
+        and r.id > ?5
+        order by r.id
+        """)
+    List<Reservation> searchByClientNamePattern(String clientNamePattern, Integer roomNumber, LocalDate from, LocalDate to
+            , int after, Limit limit);
+
+    /*
+    rows are fetched from the database in chunks of fetchSize while the stream is consumed.
+    streamed reservations are not put in the second level cache, they would push the ones being read out of it
+    */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select r from Reservation r order by r.id")
+    Stream<Reservation> streamAll();
 }
@@ -0,0 +1,30 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface RoomHoldRepository extends CrudRepository<RoomHold, UUID> {
+
+    List<RoomHold> findByExpiresAtAfter(Instant instant);
+
+    //a single delete for a whole batch, without loading the holds first
+    @Transactional
+    @Modifying
+    @Query("delete from RoomHold h where h.id in ?1")
+    int deleteHoldsById(Collection<UUID> ids);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RoomHold h where h.expiresAt <= ?1")
+    int deleteHoldsExpiredAt(Instant instant);
+}
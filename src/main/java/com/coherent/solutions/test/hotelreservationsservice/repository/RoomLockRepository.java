@@ -0,0 +1,18 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomLock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RoomLockRepository extends CrudRepository<RoomLock, Integer> {
+
+    //rows are locked in room number order, so transactions locking several rooms can not deadlock each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<RoomLock> findByRoomNumberInOrderByRoomNumber(Collection<Integer> roomNumbers);
+}
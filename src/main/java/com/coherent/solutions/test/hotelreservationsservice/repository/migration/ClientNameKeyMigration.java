@@ -0,0 +1,66 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository.migration;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.ClientNames;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+fills client_name_key for reservations created before it existed, in small batches like ReservationDatesMigration.
+names are normalized in java, the same way the entity does it on every insert and update
+*/
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class ClientNameKeyMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String NOT_MIGRATED = """
+        select id, client_full_name
+        from reservation
+        where client_name_key is null
+        limit ?
+        """;
+
+    private static final String MIGRATE = "update reservation set client_name_key = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void migrate() {
+        int migrated = 0;
+        List<Map<String, Object>> reservations;
+        do {
+            reservations = jdbcTemplate.queryForList(NOT_MIGRATED, BATCH_SIZE);
+            jdbcTemplate.batchUpdate(MIGRATE, reservations, reservations.size(), (statement, reservation) -> {
+                statement.setString(1, ClientNames.normalize((String) reservation.get("client_full_name")));
+                statement.setInt(2, ((Number) reservation.get("id")).intValue());
+            });
+            migrated += reservations.size();
+        } while (!reservations.isEmpty());
+
+        if (migrated > 0) {
+            log.info("filled client_name_key of {} reservations", migrated);
+            evictCachedReservations();
+        }
+    }
+
+    //cached reservations still have no name key, evicted the same way as in ReservationDatesMigration
+    private void evictCachedReservations() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Reservation.class);
+        cache.evictQueryRegions();
+    }
+}
@@ -0,0 +1,92 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository.migration;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+copies the dates of reservations created before start_date and end_date existed out of the reservation_dates table.
+rows are migrated in small batches, each one its own statement, so the table is never locked for long and
+the migration can be interrupted and resumed on the next startup.
+reservation_dates is left in place so the previous version can still be rolled back to, it can be dropped by hand
+once that is no longer needed. its foreign key to reservation is dropped though, reservations are now deleted
+without touching reservation_dates and the key would reject the delete of every migrated reservation.
+*/
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class ReservationDatesMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String LEGACY_TABLE_EXISTS = """
+        select count(*)
+        from information_schema.tables
+        where upper(table_name) = 'RESERVATION_DATES'
+        """;
+
+    private static final String LEGACY_FOREIGN_KEYS = """
+        select constraint_name
+        from information_schema.table_constraints
+        where upper(table_name) = 'RESERVATION_DATES'
+        and constraint_type = 'FOREIGN KEY'
+        """;
+
+    private static final String DROP_LEGACY_FOREIGN_KEY = "alter table reservation_dates drop constraint \"%s\"";
+
+    private static final String MIGRATE_BATCH = """
+        update reservation r
+        set start_date = (select min(d.reservation_date) from reservation_dates d where d.reservation_id = r.id),
+        end_date = (select max(d.reservation_date) from reservation_dates d where d.reservation_id = r.id)
+        where r.id in (
+            select p.id
+            from reservation p
+            where p.start_date is null
+            and exists (select 1 from reservation_dates d where d.reservation_id = p.id)
+            limit ?
+        )
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void migrate() {
+        Integer legacyTables = jdbcTemplate.queryForObject(LEGACY_TABLE_EXISTS, Integer.class);
+        if (legacyTables == null || legacyTables == 0) {
+            return;
+        }
+
+        //also done when every reservation was already migrated by a version that left the key in place
+        for (String foreignKey : jdbcTemplate.queryForList(LEGACY_FOREIGN_KEYS, String.class)) {
+            jdbcTemplate.execute(String.format(DROP_LEGACY_FOREIGN_KEY, foreignKey));
+            log.info("dropped foreign key {} of reservation_dates", foreignKey);
+        }
+
+        int migrated = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(MIGRATE_BATCH, BATCH_SIZE);
+            migrated += updated;
+        } while (updated > 0);
+
+        if (migrated > 0) {
+            log.info("migrated dates of {} reservations from reservation_dates", migrated);
+            evictCachedReservations();
+        }
+    }
+
+    //rows written here bypass hibernate, which would otherwise keep serving the cached reservations and query results
+    private void evictCachedReservations() {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Reservation.class);
+        cache.evictQueryRegions();
+    }
+}
@@ -0,0 +1,47 @@
+package com.coherent.solutions.test.hotelreservationsservice.repository.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+reservation ids used to be generated by an identity column, in databases created back then reservation_seq is
+created starting at 1 and would hand out ids that are already taken.
+hibernate uses every value of the sequence as the upper bound of a block of ALLOCATION_SIZE ids, so the sequence
+is moved past the highest id plus a whole block
+*/
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class ReservationIdSequenceMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String MAX_RESERVATION_ID = "select coalesce(max(id), 0) from reservation";
+
+    private static final String SEQUENCE_NEXT_VALUE = """
+        select base_value
+        from information_schema.sequences
+        where upper(sequence_name) = 'RESERVATION_SEQ'
+        """;
+
+    private static final String RESTART_SEQUENCE = "alter sequence reservation_seq restart with %d";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_RESERVATION_ID, Long.class);
+        Long nextValue = jdbcTemplate.queryForObject(SEQUENCE_NEXT_VALUE, Long.class);
+
+        if (maxId != null && maxId > 0 && nextValue != null && nextValue - ALLOCATION_SIZE < maxId) {
+            long restartWith = maxId + ALLOCATION_SIZE + 1;
+            jdbcTemplate.execute(String.format(RESTART_SEQUENCE, restartWith));
+            log.info("reservation_seq restarted with {}, after the highest reservation id {}", restartWith, maxId);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.AvailabilityResponseDTO;
+
+import java.time.LocalDate;
+
+public interface AvailabilityService {
+    AvailabilityResponseDTO getFreeRooms(LocalDate startDate, LocalDate endDate);
+}
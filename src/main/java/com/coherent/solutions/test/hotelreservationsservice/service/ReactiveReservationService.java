@@ -0,0 +1,33 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+//non blocking counterpart of ReservationService, used by the reactive profile
+public interface ReactiveReservationService {
+    Mono<ReservationResponseDTO> saveReservation(ReservationRequestDTO reservationRequest);
+    Mono<List<BatchReservationResultDTO>> saveReservations(List<ReservationRequestDTO> reservationRequests);
+    Mono<List<ReservationResponseDTO>> saveReservationGroup(List<ReservationRequestDTO> reservationRequests);
+    Mono<ReservationResponseDTO> updateReservation(int id, ReservationRequestDTO reservationRequest, Long expectedVersion);
+    Mono<RoomHoldResponseDTO> holdRoom(RoomHoldRequestDTO holdRequest);
+    Mono<Void> releaseHold(UUID holdId);
+    Mono<ReservationResponseDTO> getReservation(int id);
+    Flux<ReservationResponseDTO> getRoomReservations(int roomNumber);
+    Flux<ReservationResponseDTO> getReservations();
+    Flux<ReservationResponseDTO> getReservations(int after, int limit);
+    Flux<ReservationResponseDTO> searchReservations(ReservationSearchDTO search, int after, int limit);
+    Mono<Void> deleteReservation(int id);
+    Flux<ReservationChangeDTO> getChanges(long afterSequence, int limit);
+    Flux<ReservationEventDTO> getReservationEvents(Long lastEventId);
+}
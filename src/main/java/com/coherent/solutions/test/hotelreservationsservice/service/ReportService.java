@@ -0,0 +1,9 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyReportDTO;
+
+import java.time.LocalDate;
+
+public interface ReportService {
+    OccupancyReportDTO getOccupancy(LocalDate from, LocalDate to, OccupancyReportDTO.GroupBy groupBy);
+}
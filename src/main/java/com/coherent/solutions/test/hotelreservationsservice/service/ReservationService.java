@@ -1,13 +1,33 @@
 package com.coherent.solutions.test.hotelreservationsservice.service;
 
 import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
 import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface ReservationService {
     ReservationResponseDTO saveReservation(ReservationRequestDTO reservationRequest);
-    ReservationResponseDTO updateReservation(int id, ReservationRequestDTO reservationRequest);
+    List<BatchReservationResultDTO> saveReservations(List<ReservationRequestDTO> reservationRequests);
+    List<ReservationResponseDTO> saveReservationGroup(List<ReservationRequestDTO> reservationRequests);
+    ReservationResponseDTO updateReservation(int id, ReservationRequestDTO reservationRequest, Long expectedVersion);
+    RoomHoldResponseDTO holdRoom(RoomHoldRequestDTO holdRequest);
+    void releaseHold(UUID holdId);
+    ReservationResponseDTO getReservation(int id);
+    List<ReservationResponseDTO> getRoomReservations(int roomNumber);
     List<ReservationResponseDTO> getReservations();
+    List<ReservationResponseDTO> getReservations(int after, int limit);
+    List<ReservationResponseDTO> searchReservations(ReservationSearchDTO search, int after, int limit);
+    void streamReservations(Consumer<ReservationResponseDTO> consumer);
     void deleteReservation(int id);
+    List<ReservationChangeDTO> getChanges(long afterSequence, int limit);
+    Flux<ReservationEventDTO> getReservationEvents(Long lastEventId);
 }
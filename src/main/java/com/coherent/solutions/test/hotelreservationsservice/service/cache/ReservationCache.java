@@ -0,0 +1,51 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+names of the reservation caches and their invalidation, called once a write is committed.
+reservations by id and by room are evicted by key: caches are read with sync, so an evict waits for a load of the
+same key in progress and removes what it loaded.
+every write can change any list or page, so their keys carry a generation that writes increase, a list being loaded
+while a write commits is stored under the old generation and never read again
+*/
+@Component
+@RequiredArgsConstructor
+public class ReservationCache {
+
+    public static final String RESERVATION = "reservation";
+    public static final String ROOM_RESERVATIONS = "roomReservations";
+    public static final String RESERVATION_LISTS = "reservationLists";
+
+    private final CacheManager cacheManager;
+    private final AtomicLong listsGeneration = new AtomicLong();
+
+    public long getListsGeneration() {
+        return listsGeneration.get();
+    }
+
+    public void evict(int id, Collection<Integer> roomNumbers) {
+        evict(RESERVATION, id);
+        roomNumbers.forEach(roomNumber -> evict(ROOM_RESERVATIONS, roomNumber));
+
+        listsGeneration.incrementAndGet();
+        //older generations can not be read anymore, dropping them only frees memory
+        Cache lists = cacheManager.getCache(RESERVATION_LISTS);
+        if (lists != null) {
+            lists.clear();
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.changelog;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+//appends one change per line to hotel.change-log.file, written to disk before the batch counts as sent
+@Component
+@ConditionalOnProperty(prefix = "hotel.change-log", name = "sink", havingValue = "file", matchIfMissing = true)
+public class FileReservationChangeSink implements ReservationChangeSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileReservationChangeSink(HotelProperties hotelProperties, ObjectMapper objectMapper) {
+        this.file = Path.of(hotelProperties.getChangeLog().getFile());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void send(List<ReservationChangeDTO> changes) {
+        try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, APPEND)) {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (ReservationChangeDTO change : changes) {
+                lines.write(objectMapper.writeValueAsBytes(change));
+                lines.write('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
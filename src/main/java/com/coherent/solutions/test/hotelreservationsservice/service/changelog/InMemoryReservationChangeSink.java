@@ -0,0 +1,29 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.changelog;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//keeps every change sent, for tests
+@Component
+@ConditionalOnProperty(prefix = "hotel.change-log", name = "sink", havingValue = "memory")
+public class InMemoryReservationChangeSink implements ReservationChangeSink {
+
+    private final List<ReservationChangeDTO> changes = new ArrayList<>();
+
+    @Override
+    public synchronized void send(List<ReservationChangeDTO> changes) {
+        this.changes.addAll(changes);
+    }
+
+    public synchronized List<ReservationChangeDTO> getChanges() {
+        return List.copyOf(changes);
+    }
+
+    public synchronized void clear() {
+        changes.clear();
+    }
+}
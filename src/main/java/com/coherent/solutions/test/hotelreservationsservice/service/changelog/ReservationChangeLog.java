@@ -0,0 +1,60 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.changelog;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+//changes are only written together with the change itself, so there is never one without the other
+@Component
+@RequiredArgsConstructor
+public class ReservationChangeLog {
+
+    private final ReservationChangeRepository reservationChangeRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void created(List<Reservation> reservations) {
+        reservationChangeRepository.saveAll(reservations.stream()
+                .map(reservation -> change(ReservationChange.Type.CREATED, reservation))
+                .toList());
+    }
+
+    //the reservation has to be flushed first, so the change has its new version
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(Reservation reservation) {
+        reservationChangeRepository.save(change(ReservationChange.Type.UPDATED, reservation));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleted(int reservationId) {
+        reservationChangeRepository.save(ReservationChange.builder()
+                .type(ReservationChange.Type.DELETED)
+                .reservationId(reservationId)
+                .changedAt(Instant.now())
+                .build());
+    }
+
+    public List<ReservationChange> getPublishedChanges(long afterSequence, int limit) {
+        return reservationChangeRepository.findBySequenceGreaterThanOrderBySequenceAsc(afterSequence, Limit.of(limit));
+    }
+
+    private ReservationChange change(ReservationChange.Type type, Reservation reservation) {
+        return ReservationChange.builder()
+                .type(type)
+                .reservationId(reservation.getId())
+                .changedAt(Instant.now())
+                .clientFullName(reservation.getClientFullName())
+                .roomNumber(reservation.getRoomNumber())
+                .startDate(reservation.getStartDate())
+                .endDate(reservation.getEndDate())
+                .version(reservation.getVersion())
+                .build();
+    }
+}
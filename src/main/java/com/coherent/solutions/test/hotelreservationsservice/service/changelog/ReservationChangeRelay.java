@@ -0,0 +1,60 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.changelog;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.mappers.ReservationMapper;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/*
+publishes the committed changes not published yet, oldest first, in batches of hotel.change-log.batch-size.
+each batch gets the next sequences and is sent to the sink in the transaction that stores them: a batch the sink
+fails is rolled back and sent again on the next run.
+only one relay may run against the database, it is the only writer of sequences
+*/
+@Component
+@RequiredArgsConstructor
+public class ReservationChangeRelay {
+
+    private final ReservationChangeRepository reservationChangeRepository;
+    private final ReservationChangeSink reservationChangeSink;
+    private final TransactionTemplate transactionTemplate;
+    private final HotelProperties hotelProperties;
+
+    @Scheduled(fixedDelayString = "${hotel.change-log.relay-interval:1000}")
+    public void relayAll() {
+        int batchSize = hotelProperties.getChangeLog().getBatchSize();
+        while (relay() == batchSize) {
+            //a full batch means there can be more
+        }
+    }
+
+    //publishes one batch, returns how many changes it had
+    public synchronized int relay() {
+        return transactionTemplate.execute(status -> {
+            List<ReservationChange> changes = reservationChangeRepository.findBySequenceIsNullOrderByIdAsc(
+                    Limit.of(hotelProperties.getChangeLog().getBatchSize()));
+            if (changes.isEmpty()) {
+                return 0;
+            }
+
+            long sequence = reservationChangeRepository.findLastSequence().orElse(0L);
+            for (ReservationChange change : changes) {
+                change.setSequence(++sequence);
+            }
+
+            List<ReservationChangeDTO> published = changes.stream()
+                    .map(ReservationMapper.INSTANCE::reservationChangeToReservationChangeDTO)
+                    .toList();
+            reservationChangeSink.send(published);
+            return changes.size();
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.changelog;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+
+import java.util.List;
+
+/*
+where ReservationChangeRelay publishes the changes, in increasing sequence.
+a batch that fails is sent again later, so a batch can be received more than once: consumers should skip sequences
+they already have
+*/
+public interface ReservationChangeSink {
+    void send(List<ReservationChangeDTO> changes);
+}
@@ -0,0 +1,119 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.events;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+changes of reservations, published once they are committed.
+the last events are kept so a subscriber can resume after the last one it got. every subscriber has its own bounded
+buffer: a subscriber that falls behind by more than the buffer is completed once it has read what is buffered, and
+can resume from there with a new subscription.
+ids are not stored, they start from the time the application started times IDS_PER_MILLISECOND, so they keep
+increasing across restarts. subscribers that ask for events older than the ones kept, sent before a restart or
+never sent get a RELOAD event instead, with the last id, and then the new ones
+*/
+@Component
+public class ReservationEvents {
+
+    private final String OVERFLOWS_METRIC = "reservation.events.overflows";
+    private final String SUBSCRIBERS_METRIC = "reservation.events.subscribers";
+    //more than ever published in a millisecond, and ids stay below 2^53 so javascript clients read them exactly
+    private static final long IDS_PER_MILLISECOND = 1000;
+    private final int historySize;
+    private final int bufferSize;
+    private final Deque<ReservationEventDTO> history = new ArrayDeque<>();
+    private final Set<Sinks.Many<ReservationEventDTO>> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter overflows;
+    private long lastEventId;
+
+    public ReservationEvents(HotelProperties hotelProperties, MeterRegistry meterRegistry) {
+        this.historySize = hotelProperties.getEvents().getHistory();
+        this.bufferSize = hotelProperties.getEvents().getBuffer();
+        this.lastEventId = Instant.now().toEpochMilli() * IDS_PER_MILLISECOND;
+        this.overflows = meterRegistry.counter(OVERFLOWS_METRIC);
+        meterRegistry.gauge(SUBSCRIBERS_METRIC, subscribers, Set::size);
+    }
+
+    public void created(ReservationResponseDTO reservation) {
+        publish(ReservationEventDTO.Type.CREATED, reservation.getId(), reservation);
+    }
+
+    public void updated(ReservationResponseDTO reservation) {
+        publish(ReservationEventDTO.Type.UPDATED, reservation.getId(), reservation);
+    }
+
+    public void deleted(int reservationId) {
+        publish(ReservationEventDTO.Type.DELETED, reservationId, null);
+    }
+
+    public synchronized long getLastEventId() {
+        return lastEventId;
+    }
+
+    //events after lastEventId, or RELOAD when they are not all kept, then every new one. without lastEventId only new ones
+    public Flux<ReservationEventDTO> subscribe(Long lastEventId) {
+        return Flux.defer(() -> {
+            Sinks.Many<ReservationEventDTO> subscriber = Sinks.many().unicast()
+                    .onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+            List<ReservationEventDTO> missed;
+            synchronized (this) {
+                if (lastEventId == null) {
+                    missed = List.of();
+                } else if (isKeptAfter(lastEventId)) {
+                    missed = history.stream().filter(event -> event.getId() > lastEventId).toList();
+                } else {
+                    missed = List.of(ReservationEventDTO.builder()
+                            .id(this.lastEventId)
+                            .type(ReservationEventDTO.Type.RELOAD)
+                            .build());
+                }
+                subscribers.add(subscriber);
+            }
+            return Flux.concat(Flux.fromIterable(missed), subscriber.asFlux())
+                    .doFinally(signal -> subscribers.remove(subscriber));
+        });
+    }
+
+    //every event after the given id is kept, ids above the last one were not sent by this instance
+    private boolean isKeptAfter(long eventId) {
+        long firstKept = history.isEmpty() ? lastEventId + 1 : history.getFirst().getId();
+        return eventId >= firstKept - 1 && eventId <= lastEventId;
+    }
+
+    //events are numbered and sent to every subscriber in the order they are published
+    private synchronized void publish(ReservationEventDTO.Type type, int reservationId, ReservationResponseDTO reservation) {
+        ReservationEventDTO event = ReservationEventDTO.builder()
+                .id(++lastEventId)
+                .type(type)
+                .reservationId(reservationId)
+                .reservation(reservation)
+                .build();
+
+        history.addLast(event);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+
+        for (Sinks.Many<ReservationEventDTO> subscriber : subscribers) {
+            if (subscriber.tryEmitNext(event) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                subscribers.remove(subscriber);
+                subscriber.tryEmitComplete();
+                overflows.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.hold;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomHoldRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/*
+drops expired holds in the background: a single thread waits on the expiry queue of RoomHolds, so it only wakes up
+when a hold expires, and deletes up to hotel.holds.reap-batch-size expired holds with one statement.
+a batch that can not be deleted is left to the next start, expired holds do not block bookings anyway
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomHoldReaper {
+
+    private final String EXPIRED_METRIC = "reservation.holds.expired";
+
+    private final RoomHolds roomHolds;
+    private final RoomHoldRepository roomHoldRepository;
+    private final HotelProperties hotelProperties;
+    private final MeterRegistry meterRegistry;
+
+    private Thread reaper;
+
+    @PostConstruct
+    public void start() {
+        reaper = new Thread(this::reapAll, "room-hold-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        reaper.interrupt();
+        reaper.join();
+    }
+
+    //drops the holds expired by now, returns how many
+    public int reap() {
+        return delete(roomHolds.pollExpired(hotelProperties.getHolds().getReapBatchSize()));
+    }
+
+    private void reapAll() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                delete(roomHolds.takeExpired(hotelProperties.getHolds().getReapBatchSize()));
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("expired holds could not be deleted", e);
+            }
+        }
+    }
+
+    private int delete(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        roomHoldRepository.deleteHoldsById(ids);
+        meterRegistry.counter(EXPIRED_METRIC).increment(ids.size());
+        return ids.size();
+    }
+}
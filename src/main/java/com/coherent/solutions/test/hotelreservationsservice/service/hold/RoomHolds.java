@@ -0,0 +1,114 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.hold;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/*
+in memory copy of the room holds not expired yet, grouped by room, so bookings check them without going to the
+database. a hold stops blocking its room as soon as it expires, RoomHoldReaper only drops it later.
+holds are also queued by expiry time: polling the queue only returns expired ones, earliest first.
+a hold released before expiring stays queued until it expires, polling it again does nothing
+*/
+@Component
+public class RoomHolds {
+
+    private final Map<Integer, Set<Hold>> holdsByRoom = new ConcurrentHashMap<>();
+    private final Map<UUID, Hold> holdsById = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiring = new DelayQueue<>();
+
+    public void put(RoomHold roomHold) {
+        Hold hold = new Hold(roomHold.getId(), roomHold.getRoomNumber(), roomHold.getStartDate(), roomHold.getEndDate(),
+                roomHold.getExpiresAt());
+
+        remove(hold.id());
+        holdsById.put(hold.id(), hold);
+        holdsByRoom.computeIfAbsent(hold.roomNumber(), room -> ConcurrentHashMap.newKeySet()).add(hold);
+        expiring.add(hold);
+    }
+
+    public boolean remove(UUID id) {
+        Hold hold = holdsById.remove(id);
+        if (hold == null) {
+            return false;
+        }
+        Set<Hold> holds = holdsByRoom.get(hold.roomNumber());
+        if (holds != null) {
+            holds.remove(hold);
+        }
+        return true;
+    }
+
+    //a room has a few holds at most, they are all checked
+    public boolean isHeld(int roomNumber, LocalDate startDate, LocalDate endDate, UUID ignored) {
+        Set<Hold> holds = holdsByRoom.get(roomNumber);
+        if (holds == null) {
+            return false;
+        }
+
+        Instant now = Instant.now();
+        for (Hold hold : holds) {
+            if (hold.expiresAt().isAfter(now) && !hold.id().equals(ignored)
+                    && hold.startDate().isBefore(endDate) && hold.endDate().isAfter(startDate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //waits for the next hold to expire, then takes up to maxHolds expired ones and drops them
+    public List<UUID> takeExpired(int maxHolds) throws InterruptedException {
+        List<Hold> expired = new ArrayList<>();
+        expired.add(expiring.take());
+        expiring.drainTo(expired, maxHolds - 1);
+        return drop(expired);
+    }
+
+    //same as takeExpired without waiting, empty when no hold has expired
+    public List<UUID> pollExpired(int maxHolds) {
+        List<Hold> expired = new ArrayList<>();
+        expiring.drainTo(expired, maxHolds);
+        return drop(expired);
+    }
+
+    public void clear() {
+        holdsById.clear();
+        holdsByRoom.clear();
+        expiring.clear();
+    }
+
+    private List<UUID> drop(List<Hold> expired) {
+        List<UUID> ids = new ArrayList<>(expired.size());
+        for (Hold hold : expired) {
+            if (holdsById.remove(hold.id(), hold)) {
+                holdsByRoom.get(hold.roomNumber()).remove(hold);
+            }
+            ids.add(hold.id());
+        }
+        return ids;
+    }
+
+    private record Hold(UUID id, int roomNumber, LocalDate startDate, LocalDate endDate, Instant expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((Hold) other).expiresAt);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.impl;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.AvailabilityResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.service.AvailabilityService;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHolds;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+answered from the occupancy bitmap: one AND per room and 64 nights, no database access.
+dates or rooms the bitmap does not cover are answered from the room index: one O(log n) probe per booked room.
+rooms held by a guest are not free either, the same rule bookings follow
+*/
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private final RoomReservationIndex roomReservationIndex;
+    private final RoomOccupancyBitmap roomOccupancyBitmap;
+    private final RoomHolds roomHolds;
+    private final HotelProperties hotelProperties;
+
+    @Override
+    public AvailabilityResponseDTO getFreeRooms(LocalDate startDate, LocalDate endDate) {
+        int firstRoom = hotelProperties.getRooms().getFirst();
+        int lastRoom = hotelProperties.getRooms().getLast();
+        boolean covered = roomOccupancyBitmap.covers(firstRoom, startDate, endDate)
+                && roomOccupancyBitmap.covers(lastRoom, startDate, endDate);
+        Set<Integer> bookedRooms = covered ? Set.of() : roomReservationIndex.findBookedRooms(startDate, endDate);
+
+        List<Integer> freeRooms = IntStream.rangeClosed(firstRoom, lastRoom)
+                .filter(roomNumber -> covered
+                        ? !roomOccupancyBitmap.isBooked(roomNumber, startDate, endDate)
+                        : !bookedRooms.contains(roomNumber))
+                .filter(roomNumber -> !roomHolds.isHeld(roomNumber, startDate, endDate, null))
+                .boxed()
+                .collect(Collectors.toList());
+
+        return AvailabilityResponseDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .roomNumbers(freeRooms)
+                .build();
+    }
+}
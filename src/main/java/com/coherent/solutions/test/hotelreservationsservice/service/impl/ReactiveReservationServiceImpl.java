@@ -0,0 +1,130 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.impl;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.mappers.ReservationMapper;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReactiveReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReactiveReservationService;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReservationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+/*
+reads go through r2dbc and never block a thread.
+writes are handed to ReservationService on the bounded elastic scheduler: bookings still have to take the room
+locks and keep the in memory index and the caches up to date, which are all blocking
+*/
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveReservationServiceImpl implements ReactiveReservationService {
+
+    private final String RESERVATION_NOT_FOUND = "reservation not found with id: %d";
+    private final ReactiveReservationRepository reactiveReservationRepository;
+    private final ReservationService reservationService;
+
+    @Override
+    public Mono<ReservationResponseDTO> saveReservation(ReservationRequestDTO reservationRequest) {
+        return blocking(() -> reservationService.saveReservation(reservationRequest));
+    }
+
+    @Override
+    public Mono<List<BatchReservationResultDTO>> saveReservations(List<ReservationRequestDTO> reservationRequests) {
+        return blocking(() -> reservationService.saveReservations(reservationRequests));
+    }
+
+    @Override
+    public Mono<List<ReservationResponseDTO>> saveReservationGroup(List<ReservationRequestDTO> reservationRequests) {
+        return blocking(() -> reservationService.saveReservationGroup(reservationRequests));
+    }
+
+    @Override
+    public Mono<ReservationResponseDTO> updateReservation(int id, ReservationRequestDTO reservationRequest, Long expectedVersion) {
+        return blocking(() -> reservationService.updateReservation(id, reservationRequest, expectedVersion));
+    }
+
+    @Override
+    public Mono<RoomHoldResponseDTO> holdRoom(RoomHoldRequestDTO holdRequest) {
+        return blocking(() -> reservationService.holdRoom(holdRequest));
+    }
+
+    @Override
+    public Mono<Void> releaseHold(UUID holdId) {
+        return blocking(() -> {
+            reservationService.releaseHold(holdId);
+            return null;
+        }).then();
+    }
+
+    @Override
+    public Mono<ReservationResponseDTO> getReservation(int id) {
+        return reactiveReservationRepository.findById(id)
+                .map(ReservationMapper.INSTANCE::reservationRowToReservationResponseDTO)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(String.format(RESERVATION_NOT_FOUND, id))));
+    }
+
+    @Override
+    public Flux<ReservationResponseDTO> getRoomReservations(int roomNumber) {
+        return reactiveReservationRepository.findByRoomNumberOrderByStartDateAsc(roomNumber)
+                .map(ReservationMapper.INSTANCE::reservationRowToReservationResponseDTO);
+    }
+
+    @Override
+    public Flux<ReservationResponseDTO> getReservations() {
+        return reactiveReservationRepository.findAllByOrderByIdAsc()
+                .map(ReservationMapper.INSTANCE::reservationRowToReservationResponseDTO);
+    }
+
+    @Override
+    public Flux<ReservationResponseDTO> getReservations(int after, int limit) {
+        return reactiveReservationRepository.findPage(after, limit)
+                .map(ReservationMapper.INSTANCE::reservationRowToReservationResponseDTO);
+    }
+
+    @Override
+    public Mono<Void> deleteReservation(int id) {
+        return blocking(() -> {
+            reservationService.deleteReservation(id);
+            return null;
+        }).then();
+    }
+
+    //the search indexes are kept by ReservationService
+    @Override
+    public Flux<ReservationResponseDTO> searchReservations(ReservationSearchDTO search, int after, int limit) {
+        return blocking(() -> reservationService.searchReservations(search, after, limit))
+                .flatMapIterable(reservations -> reservations);
+    }
+
+    @Override
+    public Flux<ReservationChangeDTO> getChanges(long afterSequence, int limit) {
+        return blocking(() -> reservationService.getChanges(afterSequence, limit))
+                .flatMapIterable(changes -> changes);
+    }
+
+    //events are published by ReservationService and never block
+    @Override
+    public Flux<ReservationEventDTO> getReservationEvents(Long lastEventId) {
+        return reservationService.getReservationEvents(lastEventId);
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,84 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.impl;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyReportDTO;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReportService;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.report.OccupancyCalculator;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+answered from the room index, without database access, on the common fork/join pool.
+rooms of the hotel without bookings count as free rooms, booked rooms outside of the hotel rooms are counted too
+*/
+@Service
+@RequiredArgsConstructor
+public class ReportServiceImpl implements ReportService {
+
+    private final RoomReservationIndex roomReservationIndex;
+    private final HotelProperties hotelProperties;
+
+    @Override
+    @Timed(value = "reservation.report.occupancy", histogram = true)
+    public OccupancyReportDTO getOccupancy(LocalDate from, LocalDate to, OccupancyReportDTO.GroupBy groupBy) {
+        TreeSet<Integer> rooms = IntStream.rangeClosed(hotelProperties.getRooms().getFirst(), hotelProperties.getRooms().getLast())
+                .boxed()
+                .collect(Collectors.toCollection(TreeSet::new));
+        rooms.addAll(roomReservationIndex.getRoomNumbers());
+        int[] roomNumbers = rooms.stream().mapToInt(Integer::intValue).toArray();
+
+        IntUnaryOperator groupOfRoom = groupOfRoom(groupBy);
+        Map<Integer, int[]> occupancy = new OccupancyCalculator(roomReservationIndex, ForkJoinPool.commonPool())
+                .calculate(roomNumbers, from, to, groupOfRoom);
+        Map<Integer, Long> roomsByGroup = Arrays.stream(roomNumbers)
+                .boxed()
+                .collect(Collectors.groupingBy(groupOfRoom::applyAsInt, Collectors.counting()));
+
+        List<OccupancyDTO> groups = new TreeMap<>(occupancy).entrySet().stream()
+                .map(entry -> occupancy(entry.getKey(), roomsByGroup.get(entry.getKey()).intValue(), entry.getValue()))
+                .collect(Collectors.toList());
+
+        return OccupancyReportDTO.builder()
+                .from(from)
+                .to(to)
+                .groupBy(groupBy)
+                .groups(groups)
+                .build();
+    }
+
+    private IntUnaryOperator groupOfRoom(OccupancyReportDTO.GroupBy groupBy) {
+        int perFloor = hotelProperties.getRooms().getPerFloor();
+        return switch (groupBy) {
+            case ROOM -> roomNumber -> roomNumber;
+            case FLOOR -> roomNumber -> roomNumber / perFloor;
+            case HOTEL -> roomNumber -> 0;
+        };
+    }
+
+    //the arrays have one slot more than nights, for bookings ending after the report
+    private OccupancyDTO occupancy(int group, int rooms, int[] occupied) {
+        List<Integer> occupiedRooms = Arrays.stream(occupied, 0, occupied.length - 1).boxed().toList();
+        long roomNights = occupiedRooms.stream().mapToLong(Integer::longValue).sum();
+        return OccupancyDTO.builder()
+                .group(group)
+                .rooms(rooms)
+                .roomNights(roomNights)
+                .occupancyRate((double) roomNights / ((long) rooms * occupiedRooms.size()))
+                .occupiedRooms(occupiedRooms)
+                .build();
+    }
+}
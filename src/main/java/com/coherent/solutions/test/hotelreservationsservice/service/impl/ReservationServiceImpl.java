@@ -1,101 +1,583 @@
 package com.coherent.solutions.test.hotelreservationsservice.service.impl;
 
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
 import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
 import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
-import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ConflictException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.HoldNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.PreconditionFailedException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ReservationExpiredException;
 import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomAlreadyBookedException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomBeingBookedException;
 import com.coherent.solutions.test.hotelreservationsservice.mappers.ReservationMapper;
 import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomLock;
 import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomHoldRepository;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomLockRepository;
 import com.coherent.solutions.test.hotelreservationsservice.service.ReservationService;
+import com.coherent.solutions.test.hotelreservationsservice.service.cache.ReservationCache;
+import com.coherent.solutions.test.hotelreservationsservice.service.changelog.ReservationChangeLog;
+import com.coherent.solutions.test.hotelreservationsservice.service.events.ReservationEvents;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHolds;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.ClientNameIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.lock.RoomLocks;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.ClientNames;
 import com.coherent.solutions.test.hotelreservationsservice.service.utils.DatesValidations;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+//every public method is timed, tagged by method name
 @Service
 @RequiredArgsConstructor
+@Timed(value = "reservation.service", histogram = true)
 public class ReservationServiceImpl implements ReservationService {
 
     private final String RESERVATION_NOT_FOUND = "reservation not found with id: %d";
     private final String ROOM_ALREADY_BOOKED = "room already booked for given dates";
+    private final String GROUP_ROOM_ALREADY_BOOKED = "room already booked for given dates, reservations %s of the group";
 
     private final String RESERVATION_EXPIRED = "reservations in the past, can not be edited";
+    private final String RESERVATION_VERSION_MISMATCH = "reservation version is %d, not %d";
+    private final String RESERVATION_MODIFIED = "reservation was modified by another request";
+    private final String HOLD_NOT_FOUND = "hold not found with id: %s";
+    private final String ROOM_BEING_BOOKED = "room is being booked by another request, try again";
+
+    private final String OVERLAP_CHECK_METRIC = "reservation.overlap.check";
+
     private final ReservationRepository reservationRepository;
+    private final RoomReservationIndex roomReservationIndex;
+    private final RoomOccupancyBitmap roomOccupancyBitmap;
+    private final ClientNameIndex clientNameIndex;
+    private final RoomLocks roomLocks;
+    private final RoomLockRepository roomLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ReservationCache reservationCache;
+    private final ReservationEvents reservationEvents;
+    private final ReservationChangeLog reservationChangeLog;
+    private final RoomHolds roomHolds;
+    private final RoomHoldRepository roomHoldRepository;
+    private final HotelProperties hotelProperties;
+    private final MeterRegistry meterRegistry;
+    private volatile Timer overlapCheck;
+
+    /*
+    bookings of the same room are serialized twice: by the in process room lock, that is held until the index is
+    updated after the commit, and by the room_lock row, that is held by the database until the commit.
+    overlaps are only checked against the in memory index and bitmap, which know the bookings of this instance alone:
+    a single instance may write the database, even when it is shared through the h2 server (h2-server).
+    cached reads are invalidated and events published after the commit too, while the room is still locked so events
+    of a room are in the order of their commits.
+    the hold the reservation is made from, if any, is deleted in the same transaction
+    */
     @Override
     public ReservationResponseDTO saveReservation(ReservationRequestDTO reservationRequest) {
 
-        validateRoomIsNotBookedForGivenDates(reservationRequest);
+        List<UUID> holdIds = holdIdsOf(List.of(reservationRequest));
+        return roomLocks.withLocks(List.of(reservationRequest.getRoomNumber()), () -> {
+            Reservation saved = transactionTemplate.execute(status -> {
+                lockRooms(Set.of(reservationRequest.getRoomNumber()));
+                validateRoomIsNotBookedForGivenDates(reservationRequest);
+
+                Reservation reservationSaved = reservationRepository.save(
+                        ReservationMapper.INSTANCE.reservationRequestDTOToReservation(reservationRequest));
+                reservationChangeLog.created(List.of(reservationSaved));
+                deleteHolds(holdIds);
+                return reservationSaved;
+            });
+            holdIds.forEach(roomHolds::remove);
+            return created(saved);
+        });
+    }
+
+    /*
+    every request is checked against the booked rooms and against the requests accepted before it in the same batch,
+    inside the transaction once the room_lock rows are held, like a group. accepted ones are then inserted in the same
+    transaction using jdbc batches
+    */
+    @Override
+    public List<BatchReservationResultDTO> saveReservations(List<ReservationRequestDTO> reservationRequests) {
+
+        Set<Integer> roomNumbers = reservationRequests.stream()
+                .map(ReservationRequestDTO::getRoomNumber)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        return roomLocks.withLocks(roomNumbers, () -> {
+            BatchReservationResultDTO[] results = new BatchReservationResultDTO[reservationRequests.size()];
+            List<Integer> acceptedIndexes = new ArrayList<>();
+            List<UUID> holdIds = new ArrayList<>();
+            List<Reservation> savedReservations = new ArrayList<>();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                lockRooms(roomNumbers);
+                RoomReservationIndex acceptedInBatch = new RoomReservationIndex();
+                List<ReservationRequestDTO> acceptedRequests = new ArrayList<>();
+                List<Reservation> reservationsToSave = new ArrayList<>();
+
+                for (int index = 0; index < reservationRequests.size(); index++) {
+                    ReservationRequestDTO reservationRequest = reservationRequests.get(index);
+
+                    if (isRoomBooked(reservationRequest, null)
+                            || acceptedInBatch.isBooked(reservationRequest.getRoomNumber(), reservationRequest.getStartDate(), reservationRequest.getEndDate())) {
+                        results[index] = BatchReservationResultDTO.builder()
+                                .index(index)
+                                .status(BatchReservationResultDTO.Status.CONFLICT)
+                                .errors(List.of(ROOM_ALREADY_BOOKED))
+                                .build();
+                        continue;
+                    }
 
-        Reservation reservation = ReservationMapper.INSTANCE.reservationRequestDTOToReservation(reservationRequest);
-        reservation = reservationRepository.save(reservation);
-        return ReservationMapper.INSTANCE.reservationToReservationResponseDTO(reservation);
+                    acceptedInBatch.put(index, reservationRequest.getRoomNumber(), reservationRequest.getStartDate(), reservationRequest.getEndDate());
+                    acceptedIndexes.add(index);
+                    acceptedRequests.add(reservationRequest);
+                    reservationsToSave.add(ReservationMapper.INSTANCE.reservationRequestDTOToReservation(reservationRequest));
+                }
+
+                holdIds.addAll(holdIdsOf(acceptedRequests));
+                reservationRepository.saveAll(reservationsToSave).forEach(savedReservations::add);
+                reservationChangeLog.created(savedReservations);
+                deleteHolds(holdIds);
+            });
+            holdIds.forEach(roomHolds::remove);
+
+            for (int i = 0; i < savedReservations.size(); i++) {
+                ReservationResponseDTO reservation = created(savedReservations.get(i));
+                results[acceptedIndexes.get(i)] = BatchReservationResultDTO.builder()
+                        .index(acceptedIndexes.get(i))
+                        .status(BatchReservationResultDTO.Status.CREATED)
+                        .reservation(reservation)
+                        .build();
+            }
+            return Arrays.asList(results);
+        });
+    }
+
+    /*
+    all or nothing: every room of the group is locked at once, in ascending room number order both in process and in
+    the database, so two groups sharing rooms can not deadlock each other. every request is then checked against the
+    booked rooms and against the rest of the group, a single conflict rejects the whole group before anything is
+    written, otherwise all reservations are inserted in one transaction
+    */
+    @Override
+    public List<ReservationResponseDTO> saveReservationGroup(List<ReservationRequestDTO> reservationRequests) {
+
+        Set<Integer> roomNumbers = reservationRequests.stream()
+                .map(ReservationRequestDTO::getRoomNumber)
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        List<UUID> holdIds = holdIdsOf(reservationRequests);
+        return roomLocks.withLocks(roomNumbers, () -> {
+            List<Reservation> savedReservations = new ArrayList<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                lockRooms(roomNumbers);
+                validateGroupIsNotBooked(reservationRequests);
+
+                List<Reservation> reservationsToSave = reservationRequests.stream()
+                        .map(ReservationMapper.INSTANCE::reservationRequestDTOToReservation)
+                        .collect(Collectors.toList());
+                reservationRepository.saveAll(reservationsToSave).forEach(savedReservations::add);
+                reservationChangeLog.created(savedReservations);
+                deleteHolds(holdIds);
+            });
+            holdIds.forEach(roomHolds::remove);
+
+            return savedReservations.stream()
+                    .map(this::created)
+                    .collect(Collectors.toList());
+        });
     }
 
+    /*
+    the reservation is loaded once and changed in place, hibernate writes it with a single update on commit.
+    overlaps are checked against the in memory index.
+    with an expected version (If-Match) the update only goes on if the loaded version matches, a reservation
+    changed between the load and the update makes hibernate's versioned update fail: a conflict.
+    the update is flushed before the change is logged, so the logged change has the new version.
+    the previous nights are released from the bitmap before the new ones are booked, they can be in the same room.
+    both the room the reservation is in and the one it moves to are locked until the index is updated
+    */
     @Override
-    public ReservationResponseDTO updateReservation(int id, ReservationRequestDTO reservationRequest) {
+    public ReservationResponseDTO updateReservation(int id, ReservationRequestDTO reservationRequest, Long expectedVersion) {
 
-        validateReservationExists(id);
-        Reservation reservation = reservationRepository.findById(id).get();
+        AtomicReference<Reservation> previous = new AtomicReference<>();
+        List<UUID> holdIds = holdIdsOf(List.of(reservationRequest));
+        return withReservationLocks(id, reservationRequest.getRoomNumber(), () -> {
+            Reservation saved = executeVersionedUpdate(() -> transactionTemplate.execute(status -> {
+                Reservation reservationSaved = reservationRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException(String.format(RESERVATION_NOT_FOUND, id)));
+                previous.set(Reservation.builder()
+                        .roomNumber(reservationSaved.getRoomNumber())
+                        .startDate(reservationSaved.getStartDate())
+                        .endDate(reservationSaved.getEndDate())
+                        .build());
 
-        validateReservationIsNotInThePast(reservation);
-        validateRoomIsNotBookedForGivenDates(reservationRequest, id);
+                validateReservationVersion(reservationSaved, expectedVersion);
+                validateReservationIsNotInThePast(reservationSaved);
+                lockRooms(new TreeSet<>(List.of(reservationSaved.getRoomNumber(), reservationRequest.getRoomNumber())));
+                validateRoomIsNotBookedForGivenDates(reservationRequest, reservationSaved);
 
-        reservation = ReservationMapper.INSTANCE.reservationRequestDTOToReservation(reservationRequest);
-        reservation.setId(id);
+                ReservationMapper.INSTANCE.updateReservationFromRequest(reservationRequest, reservationSaved);
+                entityManager.flush();
+                reservationChangeLog.updated(reservationSaved);
+                deleteHolds(holdIds);
+                return reservationSaved;
+            }));
+            holdIds.forEach(roomHolds::remove);
+            roomReservationIndex.put(saved);
+            roomOccupancyBitmap.release(previous.get());
+            roomOccupancyBitmap.book(saved);
+            clientNameIndex.put(saved);
+            reservationCache.evict(id, Set.copyOf(List.of(previous.get().getRoomNumber(), saved.getRoomNumber())));
 
-        reservation = reservationRepository.save(reservation);
-        return ReservationMapper.INSTANCE.reservationToReservationResponseDTO(reservation);
+            ReservationResponseDTO reservation = ReservationMapper.INSTANCE.reservationToReservationResponseDTO(saved);
+            reservationEvents.updated(reservation);
+            return reservation;
+        });
     }
 
+    /*
+    a hold is checked and written like a booking, under the lock of its room, it only lives for hotel.holds.ttl.
+    it blocks the room once committed, RoomHoldReaper deletes it after it expires
+    */
+    @Override
+    public RoomHoldResponseDTO holdRoom(RoomHoldRequestDTO holdRequest) {
+
+        int roomNumber = holdRequest.getRoomNumber();
+        return roomLocks.withLocks(List.of(roomNumber), () -> {
+            RoomHold saved = transactionTemplate.execute(status -> {
+                lockRooms(Set.of(roomNumber));
+                if (isRoomBooked(roomNumber, holdRequest.getStartDate(), holdRequest.getEndDate(), null, null)) {
+                    throw new RoomAlreadyBookedException(ROOM_ALREADY_BOOKED);
+                }
+
+                return roomHoldRepository.save(RoomHold.builder()
+                        .id(UUID.randomUUID())
+                        .roomNumber(roomNumber)
+                        .startDate(holdRequest.getStartDate())
+                        .endDate(holdRequest.getEndDate())
+                        .expiresAt(Instant.now().plus(hotelProperties.getHolds().getTtl()))
+                        .build());
+            });
+            roomHolds.put(saved);
+            return ReservationMapper.INSTANCE.roomHoldToRoomHoldResponseDTO(saved);
+        });
+    }
+
+    //the guest gave up before paying, the room is free again right away
+    @Override
+    public void releaseHold(UUID holdId) {
+        if (roomHoldRepository.deleteHoldsById(List.of(holdId)) == 0) {
+            throw new HoldNotFoundException(String.format(HOLD_NOT_FOUND, holdId));
+        }
+        roomHolds.remove(holdId);
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReservationCache.RESERVATION, sync = true)
+    public ReservationResponseDTO getReservation(int id) {
+        return reservationRepository.findById(id)
+                .map(ReservationMapper.INSTANCE::reservationToReservationResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(String.format(RESERVATION_NOT_FOUND, id)));
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReservationCache.ROOM_RESERVATIONS, sync = true)
+    public List<ReservationResponseDTO> getRoomReservations(int roomNumber) {
+        return reservationRepository.findByRoomNumberOrderByStartDateAsc(roomNumber).stream()
+                .map(ReservationMapper.INSTANCE::reservationToReservationResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    //not cached, the whole table would be a single entry of the lists cache, which is only bounded by number of entries
     @Override
     public List<ReservationResponseDTO> getReservations() {
-        List<ReservationResponseDTO> reservations = reservationRepository.findAll().stream()
+        return reservationRepository.findAll().stream()
+                .map(ReservationMapper.INSTANCE::reservationToReservationResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Cacheable(cacheNames = ReservationCache.RESERVATION_LISTS
+            , key = "'page:' + #after + ':' + #limit + ':' + @reservationCache.listsGeneration", sync = true)
+    public List<ReservationResponseDTO> getReservations(int after, int limit) {
+        return reservationRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit)).stream()
+                .map(ReservationMapper.INSTANCE::reservationToReservationResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    /*
+    prefix searches are answered by the database over the normalized client_name_key column, searches by any part of
+    the name by the in memory trigram index, that only leaves the page of reservations to load by id
+    */
+    @Override
+    @Timed(value = "reservation.search", histogram = true)
+    public List<ReservationResponseDTO> searchReservations(ReservationSearchDTO search, int after, int limit) {
+        List<Reservation> reservations = switch (search.getMatch()) {
+            case PREFIX -> reservationRepository.searchByClientNamePattern(prefixPattern(search.getClient()),
+                    search.getRoomNumber(), search.getFrom(), search.getTo(), after, Limit.of(limit));
+            case CONTAINS -> {
+                List<Integer> ids = clientNameIndex.findContaining(search, after, limit);
+                yield ids.isEmpty() ? List.of() : reservationRepository.findByIdInOrderByIdAsc(ids);
+            }
+        };
+        return reservations.stream()
                 .map(ReservationMapper.INSTANCE::reservationToReservationResponseDTO)
                 .collect(Collectors.toList());
-        return reservations;
     }
 
+    //each reservation is detached once it is mapped, so the persistence context does not grow with the table
+    @Override
+    @Transactional(readOnly = true)
+    public void streamReservations(Consumer<ReservationResponseDTO> consumer) {
+        try (Stream<Reservation> reservations = reservationRepository.streamAll()) {
+            reservations.forEach(reservation -> {
+                entityManager.detach(reservation);
+                consumer.accept(ReservationMapper.INSTANCE.reservationToReservationResponseDTO(reservation));
+            });
+        }
+    }
+
+    /*
+    the reservation is loaded, usually from the second level cache, and deleted on its own with the version it was
+    loaded with: a bulk delete statement would make hibernate drop every cached reservation.
+    the room to evict is taken from the index, it is locked until the index is updated so an update of the same
+    reservation can not put it back
+    */
     @Override
     public void deleteReservation(int id) {
-        validateReservationExists(id);
-        reservationRepository.deleteById(id);
+        withReservationLocks(id, null, () -> {
+            executeVersionedUpdate(() -> transactionTemplate.execute(status -> {
+                Reservation reservation = reservationRepository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException(String.format(RESERVATION_NOT_FOUND, id)));
+                reservationRepository.delete(reservation);
+                reservationChangeLog.deleted(id);
+                return reservation;
+            }));
+            Optional<Reservation> removed = roomReservationIndex.remove(id);
+            removed.ifPresent(roomOccupancyBitmap::release);
+            clientNameIndex.remove(id);
+            reservationCache.evict(id, removed.map(Reservation::getRoomNumber).stream().toList());
+            reservationEvents.deleted(id);
+            return id;
+        });
+    }
+
+    @Override
+    public List<ReservationChangeDTO> getChanges(long afterSequence, int limit) {
+        return reservationChangeLog.getPublishedChanges(afterSequence, limit).stream()
+                .map(ReservationMapper.INSTANCE::reservationChangeToReservationChangeDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Flux<ReservationEventDTO> getReservationEvents(Long lastEventId) {
+        return reservationEvents.subscribe(lastEventId);
+    }
+
+    //indexes, caches and events of a committed reservation, called while its room is still locked
+    private ReservationResponseDTO created(Reservation saved) {
+        roomReservationIndex.put(saved);
+        roomOccupancyBitmap.book(saved);
+        clientNameIndex.put(saved);
+        reservationCache.evict(saved.getId(), List.of(saved.getRoomNumber()));
+
+        ReservationResponseDTO reservation = ReservationMapper.INSTANCE.reservationToReservationResponseDTO(saved);
+        reservationEvents.created(reservation);
+        return reservation;
+    }
+
+    /*
+    the room of the reservation is read from the index before it is locked, a concurrent update may move the
+    reservation to another room meanwhile. it is read again once locked, the locks are taken again if it changed.
+    a reservation missing from the index has no room to lock, the request fails or finds it in the database
+    */
+    private <T> T withReservationLocks(int id, Integer roomNumber, Supplier<T> action) {
+        AtomicReference<T> result = new AtomicReference<>();
+        boolean done = false;
+        while (!done) {
+            Optional<Integer> reservationRoomNumber = roomReservationIndex.findRoomNumber(id);
+            Set<Integer> roomNumbers = new TreeSet<>();
+            reservationRoomNumber.ifPresent(roomNumbers::add);
+            if (roomNumber != null) {
+                roomNumbers.add(roomNumber);
+            }
+
+            done = roomLocks.withLocks(roomNumbers, () -> {
+                if (!roomReservationIndex.findRoomNumber(id).equals(reservationRoomNumber)) {
+                    return false;
+                }
+                result.set(action.get());
+                return true;
+            });
+        }
+        return result.get();
+    }
+
+    private List<UUID> holdIdsOf(List<ReservationRequestDTO> reservationRequests) {
+        return reservationRequests.stream()
+                .map(ReservationRequestDTO::getHoldId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void deleteHolds(List<UUID> holdIds) {
+        if (!holdIds.isEmpty()) {
+            roomHoldRepository.deleteHoldsById(holdIds);
+        }
+    }
+
+    private String prefixPattern(String client) {
+        return ClientNames.normalize(client)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    /*
+    a room booked for the first time has no row yet, it is inserted and so locked by this transaction. rooms are
+    serialized in process, only another process inserting the same row at the same time makes the insert fail
+    */
+    private void lockRooms(Set<Integer> roomNumbers) {
+        Set<Integer> lockedRooms = roomLockRepository.findByRoomNumberInOrderByRoomNumber(roomNumbers).stream()
+                .map(RoomLock::getRoomNumber)
+                .collect(Collectors.toSet());
+
+        List<RoomLock> newRooms = roomNumbers.stream()
+                .filter(roomNumber -> !lockedRooms.contains(roomNumber))
+                .map(RoomLock::new)
+                .collect(Collectors.toList());
+        if (!newRooms.isEmpty()) {
+            try {
+                roomLockRepository.saveAll(newRooms);
+                entityManager.flush();
+            } catch (PersistenceException | DataIntegrityViolationException e) {
+                throw new RoomBeingBookedException(ROOM_BEING_BOOKED);
+            }
+        }
+    }
+
+    private Reservation executeVersionedUpdate(Supplier<Reservation> update) {
+        try {
+            return update.get();
+        } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+            throw new ConflictException(RESERVATION_MODIFIED);
+        }
     }
 
     private void validateRoomIsNotBookedForGivenDates(ReservationRequestDTO reservationRequest) {
-        if (!findReservationsWithOverlappingDates(reservationRequest).isEmpty()) {
-            throw new BadRequestException(ROOM_ALREADY_BOOKED);
+        validateRoomIsNotBookedForGivenDates(reservationRequest, null);
+    }
+
+    private void validateRoomIsNotBookedForGivenDates(ReservationRequestDTO reservationRequest, Reservation ignored) {
+        if (isRoomBooked(reservationRequest, ignored)) {
+            throw new RoomAlreadyBookedException(ROOM_ALREADY_BOOKED);
         }
     }
 
-    private void validateRoomIsNotBookedForGivenDates(ReservationRequestDTO reservationRequest, int idToIgnore) {
-        List<Reservation> reservations = findReservationsWithOverlappingDates(reservationRequest);
-        boolean containsReservationId = !reservations.stream().filter(reservation -> idToIgnore != reservation.getId()).collect(Collectors.toList()).isEmpty();
+    //every conflicting request is reported, by its index in the group
+    private void validateGroupIsNotBooked(List<ReservationRequestDTO> reservationRequests) {
+        RoomReservationIndex acceptedInGroup = new RoomReservationIndex();
+        List<Integer> conflicts = new ArrayList<>();
+
+        for (int index = 0; index < reservationRequests.size(); index++) {
+            ReservationRequestDTO reservationRequest = reservationRequests.get(index);
+            if (isRoomBooked(reservationRequest, null)
+                    || acceptedInGroup.isBooked(reservationRequest.getRoomNumber(), reservationRequest.getStartDate(), reservationRequest.getEndDate())) {
+                conflicts.add(index);
+                continue;
+            }
+            acceptedInGroup.put(index, reservationRequest.getRoomNumber(), reservationRequest.getStartDate(), reservationRequest.getEndDate());
+        }
 
-        if (!reservations.isEmpty() && containsReservationId) {
-            throw new BadRequestException(ROOM_ALREADY_BOOKED);
+        if (!conflicts.isEmpty()) {
+            throw new RoomAlreadyBookedException(String.format(GROUP_ROOM_ALREADY_BOOKED, conflicts.stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(", "))));
         }
     }
-    private void validateReservationExists(int id) {
-        if (!reservationRepository.existsById(id)) {
-            throw new ResourceNotFoundException(String.format(RESERVATION_NOT_FOUND, id));
+
+    private void validateReservationVersion(Reservation reservation, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(reservation.getVersion())) {
+            throw new PreconditionFailedException(String.format(RESERVATION_VERSION_MISMATCH, reservation.getVersion(), expectedVersion));
         }
     }
 
     private void validateReservationIsNotInThePast(Reservation reservation) {
-        List<LocalDate> reservationDates = reservation.getReservationDates();
-        LocalDate endDate = reservationDates.get(reservationDates.size() - 1);
-        if (DatesValidations.isEndDateInThePast(endDate)) {
-            throw new BadRequestException(RESERVATION_EXPIRED);
+        if (DatesValidations.isEndDateInThePast(reservation.getEndDate())) {
+            throw new ReservationExpiredException(RESERVATION_EXPIRED);
         }
     }
-    private List<Reservation> findReservationsWithOverlappingDates(ReservationRequestDTO reservationRequest) {
-        List<Reservation> reservations = reservationRepository
-                .findByReservationAndByOverlappingDates(reservationRequest.getStartDate(), reservationRequest.getEndDate(),
-                        reservationRequest.getRoomNumber());
-        return reservations;
+
+    //the hold of the request does not block it
+    private boolean isRoomBooked(ReservationRequestDTO reservationRequest, Reservation ignored) {
+        return isRoomBooked(reservationRequest.getRoomNumber(), reservationRequest.getStartDate(), reservationRequest.getEndDate()
+                , ignored, reservationRequest.getHoldId());
+    }
+
+    /*
+    an AND with the occupancy bitmap, rooms and dates outside of it are checked against the index.
+    rooms held by other guests are booked too
+    */
+    private boolean isRoomBooked(int roomNumber, LocalDate startDate, LocalDate endDate, Reservation ignored, UUID ignoredHold) {
+        return overlapCheck().record(() -> {
+            boolean booked;
+            if (roomOccupancyBitmap.covers(roomNumber, startDate, endDate)) {
+                booked = roomOccupancyBitmap.isBooked(roomNumber, startDate, endDate, ignored);
+            } else {
+                booked = roomReservationIndex.findOverlapping(roomNumber, startDate, endDate).stream()
+                        .anyMatch(reservationId -> ignored == null || ignored.getId() != reservationId);
+            }
+            return booked || roomHolds.isHeld(roomNumber, startDate, endDate, ignoredHold);
+        });
+    }
+
+    //the in memory overlap check of every booking, whether the bitmap or the index answers it. registered on first use
+    private Timer overlapCheck() {
+        if (overlapCheck == null) {
+            overlapCheck = Timer.builder(OVERLAP_CHECK_METRIC)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        return overlapCheck;
     }
 }
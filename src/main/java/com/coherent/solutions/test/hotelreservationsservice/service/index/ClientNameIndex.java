@@ -0,0 +1,109 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.index;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.service.utils.ClientNames;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/*
+in memory trigram index of the normalized client names, to find reservations by any part of the name.
+every reservation is listed, by id, under each sequence of three characters of its name. a search walks the ids of
+the least common trigram of the searched text from the given id on and keeps the reservations whose name contains
+the whole text, so it reads about as many reservations as that trigram has, not the whole guest history
+*/
+@Component
+public class ClientNameIndex {
+
+    public static final int MIN_SEARCH_LENGTH = 3;
+
+    private final Map<String, NavigableSet<Integer>> idsByTrigram = new ConcurrentHashMap<>();
+    private final Map<Integer, IndexedReservation> reservationsById = new ConcurrentHashMap<>();
+
+    public void put(Reservation reservation) {
+        IndexedReservation indexed = new IndexedReservation(ClientNames.normalize(reservation.getClientFullName()),
+                reservation.getRoomNumber(), reservation.getStartDate(), reservation.getEndDate());
+
+        remove(reservation.getId());
+        reservationsById.put(reservation.getId(), indexed);
+        for (String trigram : trigrams(indexed.nameKey())) {
+            idsByTrigram.computeIfAbsent(trigram, key -> new ConcurrentSkipListSet<>()).add(reservation.getId());
+        }
+    }
+
+    public void remove(int id) {
+        IndexedReservation indexed = reservationsById.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        for (String trigram : trigrams(indexed.nameKey())) {
+            NavigableSet<Integer> ids = idsByTrigram.get(trigram);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    //ids above `after` in ascending order, of reservations whose normalized name contains the normalized client
+    public List<Integer> findContaining(ReservationSearchDTO search, int after, int limit) {
+        String nameKey = ClientNames.normalize(search.getClient());
+        if (nameKey.length() < MIN_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("searched names need " + MIN_SEARCH_LENGTH + " characters at least");
+        }
+
+        NavigableSet<Integer> leastCommon = null;
+        for (String trigram : trigrams(nameKey)) {
+            NavigableSet<Integer> ids = idsByTrigram.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            if (leastCommon == null || ids.size() < leastCommon.size()) {
+                leastCommon = ids;
+            }
+        }
+
+        List<Integer> found = new ArrayList<>();
+        for (Integer id : leastCommon.tailSet(after, false)) {
+            IndexedReservation indexed = reservationsById.get(id);
+            if (indexed != null && indexed.matches(nameKey, search)) {
+                found.add(id);
+                if (found.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    public void clear() {
+        reservationsById.clear();
+        idsByTrigram.clear();
+    }
+
+    private static Set<String> trigrams(String nameKey) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + MIN_SEARCH_LENGTH <= nameKey.length(); i++) {
+            trigrams.add(nameKey.substring(i, i + MIN_SEARCH_LENGTH));
+        }
+        return trigrams;
+    }
+
+    private record IndexedReservation(String nameKey, int roomNumber, LocalDate startDate, LocalDate endDate) {
+
+        private boolean matches(String searchedKey, ReservationSearchDTO search) {
+            return nameKey.contains(searchedKey)
+                    && (search.getRoomNumber() == null || search.getRoomNumber() == roomNumber)
+                    && (search.getFrom() == null || endDate.isAfter(search.getFrom()))
+                    && (search.getTo() == null || startDate.isBefore(search.getTo()));
+        }
+    }
+}
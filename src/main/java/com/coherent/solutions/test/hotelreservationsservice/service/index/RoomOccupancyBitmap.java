@@ -0,0 +1,283 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.index;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+booked nights of every room from 0 to lastRoom, one bit per night from the first day of the year the bitmap was
+created, for horizonYears years. an overlap check is an AND of the requested nights with the booked ones, one long
+(64 nights) at a time.
+the bitmap is memory mapped from a file so it survives restarts: the file is marked open while the application runs
+and closed on shutdown, a file left open by a crash, created for another layout or older than a year is rebuilt
+from the room index.
+the header also keeps a stamp of the reservations booked in it, their number and a checksum of their rooms and dates,
+written on shutdown. on the next start it is compared with the reservations of the database, a file closed cleanly
+against another database or before rows were written to it by hand or by another process is rebuilt too.
+without a file the bitmap lives in memory and is rebuilt on every start.
+bookings of a room are written under its room lock, the longs are read and written atomically so checks of other
+rooms and availability searches can run at the same time.
+rooms and dates outside of the bitmap are not covered, checks for them go to the room index
+*/
+@Slf4j
+@Component
+public class RoomOccupancyBitmap {
+
+    private static final int MAGIC = 0x524f4f4d;
+    private static final int FORMAT = 2;
+    private static final int OPEN = 0;
+    private static final int CLOSED = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_OFFSET = 4;
+    private static final int FIRST_DAY_OFFSET = 8;
+    private static final int NIGHTS_OFFSET = 16;
+    private static final int ROOMS_OFFSET = 20;
+    private static final int STATE_OFFSET = 24;
+    private static final int BOOKINGS_OFFSET = 32;
+    private static final int CHECKSUM_OFFSET = 40;
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final String file;
+    private final int rooms;
+    private final int words;
+    private final int nights;
+    private final AtomicLong bookings = new AtomicLong();
+    private final AtomicLong checksum = new AtomicLong();
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private long firstDay;
+    private boolean restored;
+
+    public RoomOccupancyBitmap(HotelProperties hotelProperties) {
+        HotelProperties.Occupancy occupancy = hotelProperties.getOccupancy();
+        this.file = occupancy.getFile();
+        this.rooms = occupancy.getLastRoom() + 1;
+        this.words = (occupancy.getHorizonYears() * 366 + 63) / 64;
+        this.nights = words * 64;
+    }
+
+    @PostConstruct
+    public void open() {
+        long size = HEADER_BYTES + (long) rooms * words * Long.BYTES;
+        LocalDate firstDate = LocalDate.now().with(TemporalAdjusters.firstDayOfYear());
+
+        if (file == null || file.isBlank()) {
+            buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            writeHeader(firstDate);
+            return;
+        }
+
+        try {
+            Path path = Path.of(file);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean sameLayout = channel.size() == size;
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            restored = sameLayout
+                    && buffer.getInt(MAGIC_OFFSET) == MAGIC
+                    && buffer.getInt(FORMAT_OFFSET) == FORMAT
+                    && buffer.getInt(NIGHTS_OFFSET) == nights
+                    && buffer.getInt(ROOMS_OFFSET) == rooms
+                    && buffer.getInt(STATE_OFFSET) == CLOSED
+                    && !LocalDate.ofEpochDay(buffer.getLong(FIRST_DAY_OFFSET)).isBefore(firstDate.minusYears(1));
+            if (restored) {
+                firstDay = buffer.getLong(FIRST_DAY_OFFSET);
+                bookings.set(buffer.getLong(BOOKINGS_OFFSET));
+                checksum.set(buffer.getLong(CHECKSUM_OFFSET));
+            } else {
+                log.info("room occupancy bitmap {} will be rebuilt", file);
+                writeHeader(firstDate);
+            }
+            buffer.putInt(STATE_OFFSET, OPEN);
+            mapped.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException("can not map the room occupancy bitmap " + file, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        MappedByteBuffer mapped = (MappedByteBuffer) buffer;
+        mapped.force();
+        buffer.putLong(BOOKINGS_OFFSET, bookings.get());
+        buffer.putLong(CHECKSUM_OFFSET, checksum.get());
+        buffer.putInt(STATE_OFFSET, CLOSED);
+        mapped.force();
+        channel.close();
+        channel = null;
+    }
+
+    //true when the bookings were read from the file, false when they have to be written again from the room index
+    public boolean isRestored() {
+        return restored;
+    }
+
+    /*
+    keeps the bookings read from the file only when they were booked for the given reservations, the ones of the
+    database. the stamp is taken from them either way, the bitmap is rebuilt from the same reservations when this
+    returns false
+    */
+    public boolean restore(Iterable<Reservation> reservations) {
+        long expectedBookings = 0;
+        long expectedChecksum = 0;
+        for (Reservation reservation : reservations) {
+            //left without dates by the reservation_dates migration, never booked
+            if (reservation.getStartDate() == null || reservation.getEndDate() == null) {
+                continue;
+            }
+            expectedBookings++;
+            expectedChecksum += hash(reservation);
+        }
+        if (restored && (bookings.get() != expectedBookings || checksum.get() != expectedChecksum)) {
+            log.info("room occupancy bitmap {} was written for other reservations, it will be rebuilt", file);
+            restored = false;
+        }
+        bookings.set(expectedBookings);
+        checksum.set(expectedChecksum);
+        return restored;
+    }
+
+    public LocalDate getFirstDate() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    public LocalDate getEndDate() {
+        return LocalDate.ofEpochDay(firstDay + nights);
+    }
+
+    public boolean covers(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        return roomNumber >= 0 && roomNumber < rooms
+                && startDate.toEpochDay() >= firstDay
+                && endDate.toEpochDay() <= firstDay + nights;
+    }
+
+    public boolean isBooked(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        return isBooked(roomNumber, startDate, endDate, null);
+    }
+
+    //the nights of the ignored reservation do not count, for a reservation moved to other nights of the same room
+    public boolean isBooked(int roomNumber, LocalDate startDate, LocalDate endDate, Reservation ignored) {
+        int from = night(startDate);
+        int to = night(endDate);
+        boolean ignoring = ignored != null && ignored.getRoomNumber() == roomNumber;
+        int ignoredFrom = ignoring ? night(ignored.getStartDate()) : 0;
+        int ignoredTo = ignoring ? night(ignored.getEndDate()) : 0;
+
+        for (int word = from >> 6; word <= (to - 1) >> 6 && from < to; word++) {
+            long requested = mask(word, from, to) & ~mask(word, ignoredFrom, ignoredTo);
+            if (((long) WORDS.getVolatile(buffer, offset(roomNumber, word)) & requested) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void book(Reservation reservation) {
+        book(reservation.getRoomNumber(), reservation.getStartDate(), reservation.getEndDate());
+        bookings.incrementAndGet();
+        checksum.addAndGet(hash(reservation));
+    }
+
+    //nights outside of the bitmap are left out
+    public void book(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        if (roomNumber < 0 || roomNumber >= rooms) {
+            return;
+        }
+        int from = night(startDate);
+        int to = night(endDate);
+        for (int word = from >> 6; word <= (to - 1) >> 6 && from < to; word++) {
+            WORDS.getAndBitwiseOr(buffer, offset(roomNumber, word), mask(word, from, to));
+        }
+    }
+
+    public void release(Reservation reservation) {
+        release(reservation.getRoomNumber(), reservation.getStartDate(), reservation.getEndDate());
+        bookings.decrementAndGet();
+        checksum.addAndGet(-hash(reservation));
+    }
+
+    public void release(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        if (roomNumber < 0 || roomNumber >= rooms) {
+            return;
+        }
+        int from = night(startDate);
+        int to = night(endDate);
+        for (int word = from >> 6; word <= (to - 1) >> 6 && from < to; word++) {
+            WORDS.getAndBitwiseAnd(buffer, offset(roomNumber, word), ~mask(word, from, to));
+        }
+    }
+
+    public void clear() {
+        for (int offset = HEADER_BYTES; offset < buffer.capacity(); offset += Long.BYTES) {
+            WORDS.setVolatile(buffer, offset, 0L);
+        }
+    }
+
+    private void writeHeader(LocalDate firstDate) {
+        firstDay = firstDate.toEpochDay();
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(FORMAT_OFFSET, FORMAT);
+        buffer.putLong(FIRST_DAY_OFFSET, firstDay);
+        buffer.putInt(NIGHTS_OFFSET, nights);
+        buffer.putInt(ROOMS_OFFSET, rooms);
+        clear();
+    }
+
+    //night of the date in the bitmap, dates before and after it are moved to its first and last night
+    private int night(LocalDate date) {
+        return (int) Math.max(0, Math.min(nights, date.toEpochDay() - firstDay));
+    }
+
+    private int offset(int roomNumber, int word) {
+        return HEADER_BYTES + (roomNumber * words + word) * Long.BYTES;
+    }
+
+    //added up, so the checksum does not depend on the order reservations were booked in
+    private static long hash(Reservation reservation) {
+        long hash = reservation.getRoomNumber() * 0x9e3779b97f4a7c15L + reservation.getStartDate().toEpochDay();
+        hash = hash * 0x9e3779b97f4a7c15L + reservation.getEndDate().toEpochDay();
+        hash ^= hash >>> 32;
+        hash *= 0xd6e8feb86659fd93L;
+        return hash ^ (hash >>> 32);
+    }
+
+    //bits of the nights from `from` to `to` excluded that fall in the given long
+    private static long mask(int word, int from, int to) {
+        int low = Math.max(from, word << 6);
+        int high = Math.min(to, (word + 1) << 6);
+        if (low >= high) {
+            return 0L;
+        }
+        return (-1L >>> (64 - (high - low))) << (low - (word << 6));
+    }
+}
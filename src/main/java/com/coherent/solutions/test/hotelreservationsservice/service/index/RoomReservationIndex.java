@@ -0,0 +1,122 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.index;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/*
+in memory copy of the booked date ranges, grouped by room and sorted by start date, so overlap checks
+do not need to go to the database.
+bookings of one room never overlap each other, so walking backwards from the last range starting before
+the requested end date can stop at the first range ending before the requested start date: O(log n)
+*/
+@Component
+public class RoomReservationIndex {
+
+    private static final Comparator<BookedRange> BY_START_DATE = Comparator
+            .comparing(BookedRange::startDate)
+            .thenComparingInt(BookedRange::id);
+
+    private final Map<Integer, NavigableSet<BookedRange>> rangesByRoom = new ConcurrentHashMap<>();
+    private final Map<Integer, BookedRange> rangesById = new ConcurrentHashMap<>();
+
+    public void put(Reservation reservation) {
+        put(reservation.getId(), reservation.getRoomNumber(), reservation.getStartDate(), reservation.getEndDate());
+    }
+
+    public void put(int id, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        BookedRange range = new BookedRange(id, roomNumber, startDate, endDate);
+
+        remove(range.id());
+        rangesById.put(range.id(), range);
+        rangesByRoom.computeIfAbsent(range.roomNumber(), room -> new ConcurrentSkipListSet<>(BY_START_DATE))
+                .add(range);
+    }
+
+    //returns the room and dates the removed reservation had
+    public Optional<Reservation> remove(int id) {
+        BookedRange range = rangesById.remove(id);
+        if (range == null) {
+            return Optional.empty();
+        }
+        NavigableSet<BookedRange> ranges = rangesByRoom.get(range.roomNumber());
+        if (ranges != null) {
+            ranges.remove(range);
+        }
+        return Optional.of(Reservation.builder()
+                .id(range.id())
+                .roomNumber(range.roomNumber())
+                .startDate(range.startDate())
+                .endDate(range.endDate())
+                .build());
+    }
+
+    public Optional<Integer> findRoomNumber(int id) {
+        return Optional.ofNullable(rangesById.get(id)).map(BookedRange::roomNumber);
+    }
+
+    public List<Integer> findOverlapping(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        List<Integer> overlapping = new ArrayList<>();
+        forEachOverlappingRange(roomNumber, startDate, endDate, range -> overlapping.add(range.id()));
+        return overlapping;
+    }
+
+    //start and end date of every booking of the room overlapping the given dates, latest first
+    public void forEachOverlapping(int roomNumber, LocalDate startDate, LocalDate endDate, BiConsumer<LocalDate, LocalDate> consumer) {
+        forEachOverlappingRange(roomNumber, startDate, endDate, range -> consumer.accept(range.startDate(), range.endDate()));
+    }
+
+    public Set<Integer> getRoomNumbers() {
+        return rangesByRoom.keySet();
+    }
+
+    public boolean isBooked(int roomNumber, LocalDate startDate, LocalDate endDate) {
+        return !findOverlapping(roomNumber, startDate, endDate).isEmpty();
+    }
+
+    public Set<Integer> findBookedRooms(LocalDate startDate, LocalDate endDate) {
+        Set<Integer> bookedRooms = new HashSet<>();
+        for (Integer roomNumber : rangesByRoom.keySet()) {
+            if (isBooked(roomNumber, startDate, endDate)) {
+                bookedRooms.add(roomNumber);
+            }
+        }
+        return bookedRooms;
+    }
+
+    private void forEachOverlappingRange(int roomNumber, LocalDate startDate, LocalDate endDate, Consumer<BookedRange> consumer) {
+        NavigableSet<BookedRange> ranges = rangesByRoom.get(roomNumber);
+        if (ranges == null) {
+            return;
+        }
+
+        BookedRange firstRangeStartingOnEndDate = new BookedRange(Integer.MIN_VALUE, roomNumber, endDate, endDate);
+        for (BookedRange range : ranges.headSet(firstRangeStartingOnEndDate, false).descendingSet()) {
+            if (!range.endDate().isAfter(startDate)) {
+                break;
+            }
+            consumer.accept(range);
+        }
+    }
+
+    public void clear() {
+        rangesById.clear();
+        rangesByRoom.clear();
+    }
+
+    private record BookedRange(int id, int roomNumber, LocalDate startDate, LocalDate endDate) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.index;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomHoldRepository;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHolds;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+loads the indexes before the web server starts taking requests, so no booking is validated against an empty index.
+the occupancy bitmap is only written again when it could not be restored from its file, or the file was written for
+other reservations than the ones of the database.
+reservations the dates migration found no reservation_dates rows for have no dates, they can not be indexed and are
+left out, logged so they can be fixed by hand.
+holds that expired while the application was stopped are deleted, the rest are loaded
+*/
+@Slf4j
+@Component
+@DependsOn({"reservationDatesMigration", "reservationIdSequenceMigration", "clientNameKeyMigration"})
+@RequiredArgsConstructor
+public class RoomReservationIndexLoader {
+
+    private final ReservationRepository reservationRepository;
+    private final RoomReservationIndex roomReservationIndex;
+    private final RoomOccupancyBitmap roomOccupancyBitmap;
+    private final ClientNameIndex clientNameIndex;
+    private final RoomHoldRepository roomHoldRepository;
+    private final RoomHolds roomHolds;
+
+    @PostConstruct
+    public void load() {
+        roomReservationIndex.clear();
+        clientNameIndex.clear();
+        List<Reservation> reservations = new ArrayList<>();
+        List<Integer> undated = new ArrayList<>();
+        for (Reservation reservation : reservationRepository.findAll()) {
+            if (reservation.getStartDate() == null || reservation.getEndDate() == null) {
+                undated.add(reservation.getId());
+                continue;
+            }
+            reservations.add(reservation);
+            roomReservationIndex.put(reservation);
+            clientNameIndex.put(reservation);
+        }
+        if (!undated.isEmpty()) {
+            log.warn("reservations {} have no dates, they are left out of the indexes", undated);
+        }
+
+        if (!roomOccupancyBitmap.restore(reservations)) {
+            roomOccupancyBitmap.clear();
+            for (Integer roomNumber : roomReservationIndex.getRoomNumbers()) {
+                roomReservationIndex.forEachOverlapping(roomNumber, roomOccupancyBitmap.getFirstDate(), roomOccupancyBitmap.getEndDate(),
+                        (startDate, endDate) -> roomOccupancyBitmap.book(roomNumber, startDate, endDate));
+            }
+        }
+
+        Instant now = Instant.now();
+        roomHolds.clear();
+        roomHoldRepository.deleteHoldsExpiredAt(now);
+        roomHoldRepository.findByExpiresAtAfter(now).forEach(roomHolds::put);
+    }
+}
@@ -0,0 +1,47 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.lock;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+in process locks for bookings, rooms are spread over a fixed number of stripes so two bookings of the same room
+wait for each other while bookings of other rooms run in parallel (unless two rooms share a stripe).
+stripes are always taken in ascending order, so callers locking several rooms can not deadlock each other
+*/
+@Component
+public class RoomLocks {
+
+    private static final int STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public RoomLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLocks(Collection<Integer> roomNumbers, Supplier<T> action) {
+        int[] stripes = roomNumbers.stream()
+                .mapToInt(roomNumber -> Math.floorMod(roomNumber, STRIPES))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+}
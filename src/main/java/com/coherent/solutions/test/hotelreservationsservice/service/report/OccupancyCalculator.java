@@ -0,0 +1,104 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.report;
+
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntUnaryOperator;
+
+/*
+occupied rooms per group of rooms and per night, in a single pass over the bookings in the index.
+every booking adds 1 on the night it starts and -1 on the night it ends to the difference array of the group of its
+room, a prefix sum then gives the occupied rooms of every night: O(bookings + groups x nights) instead of
+O(bookings x nights).
+rooms are split between fork/join tasks, each with its own arrays, that are added together when the tasks join
+*/
+public class OccupancyCalculator {
+
+    private static final int ROOMS_PER_TASK = 64;
+
+    private final RoomReservationIndex roomReservationIndex;
+    private final ForkJoinPool forkJoinPool;
+
+    public OccupancyCalculator(RoomReservationIndex roomReservationIndex, ForkJoinPool forkJoinPool) {
+        this.roomReservationIndex = roomReservationIndex;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    //occupied rooms of each night from `from` to `to` excluded, by group
+    public Map<Integer, int[]> calculate(int[] roomNumbers, LocalDate from, LocalDate to, IntUnaryOperator groupOfRoom) {
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        Map<Integer, int[]> occupancy = forkJoinPool.invoke(
+                new OccupancyTask(roomNumbers, 0, roomNumbers.length, from, to, nights, groupOfRoom));
+
+        for (int[] occupied : occupancy.values()) {
+            for (int night = 1; night < nights; night++) {
+                occupied[night] += occupied[night - 1];
+            }
+        }
+        return occupancy;
+    }
+
+    private class OccupancyTask extends RecursiveTask<Map<Integer, int[]>> {
+
+        private final int[] roomNumbers;
+        private final int fromIndex;
+        private final int toIndex;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final int nights;
+        private final IntUnaryOperator groupOfRoom;
+
+        private OccupancyTask(int[] roomNumbers, int fromIndex, int toIndex, LocalDate from, LocalDate to, int nights
+                , IntUnaryOperator groupOfRoom) {
+            this.roomNumbers = roomNumbers;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.from = from;
+            this.to = to;
+            this.nights = nights;
+            this.groupOfRoom = groupOfRoom;
+        }
+
+        @Override
+        protected Map<Integer, int[]> compute() {
+            if (toIndex - fromIndex <= ROOMS_PER_TASK) {
+                return computeDirectly();
+            }
+            int middle = (fromIndex + toIndex) >>> 1;
+            OccupancyTask left = new OccupancyTask(roomNumbers, fromIndex, middle, from, to, nights, groupOfRoom);
+            OccupancyTask right = new OccupancyTask(roomNumbers, middle, toIndex, from, to, nights, groupOfRoom);
+            left.fork();
+            Map<Integer, int[]> occupancy = right.compute();
+            left.join().forEach((group, differences) -> occupancy.merge(group, differences, OccupancyTask::add));
+            return occupancy;
+        }
+
+        //difference arrays of the rooms of this task, one slot more than nights for bookings ending after the report
+        private Map<Integer, int[]> computeDirectly() {
+            Map<Integer, int[]> differencesByGroup = new HashMap<>();
+            long firstDay = from.toEpochDay();
+            for (int index = fromIndex; index < toIndex; index++) {
+                int roomNumber = roomNumbers[index];
+                int[] differences = differencesByGroup.computeIfAbsent(groupOfRoom.applyAsInt(roomNumber),
+                        group -> new int[nights + 1]);
+                roomReservationIndex.forEachOverlapping(roomNumber, from, to, (startDate, endDate) -> {
+                    differences[(int) Math.max(0, startDate.toEpochDay() - firstDay)]++;
+                    differences[(int) Math.min(nights, endDate.toEpochDay() - firstDay)]--;
+                });
+            }
+            return differencesByGroup;
+        }
+
+        private static int[] add(int[] left, int[] right) {
+            for (int i = 0; i < left.length; i++) {
+                left[i] += right[i];
+            }
+            return left;
+        }
+    }
+}
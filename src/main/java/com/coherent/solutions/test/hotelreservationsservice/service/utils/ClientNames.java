@@ -0,0 +1,17 @@
+package com.coherent.solutions.test.hotelreservationsservice.service.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class ClientNames {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    //lower case, without accents and with single spaces: " José  GARCÍA" is searched as "jose garcia"
+    public static String normalize(String clientFullName) {
+        String withoutAccents = ACCENTS.matcher(Normalizer.normalize(clientFullName, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutAccents.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
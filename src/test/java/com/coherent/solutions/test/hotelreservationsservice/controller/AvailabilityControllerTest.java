@@ -0,0 +1,95 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.AvailabilityResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.utils.DatesMother;
+import com.coherent.solutions.test.hotelreservationsservice.service.AvailabilityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = AvailabilityController.class)
+@Import(SimpleMeterRegistry.class)
+public class AvailabilityControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AvailabilityService availabilityService;
+
+    String path = "/availability";
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void shouldGetTheFreeRoomsForTheGivenDates() throws Exception {
+        LocalDate startDate = DatesMother.inTheFuture();
+        LocalDate endDate = DatesMother.inTheFutureFromDate(startDate);
+
+        AvailabilityResponseDTO responseDTO = AvailabilityResponseDTO.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .roomNumbers(Arrays.asList(101, 102, 205))
+                .build();
+        when(availabilityService.getFreeRooms(startDate, endDate)).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("start", startDate.toString())
+                        .param("end", endDate.toString()))
+                .andReturn();
+
+        String expectedResponse = objectMapper.writeValueAsString(responseDTO);
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(expectedResponse);
+
+        verify(availabilityService).getFreeRooms(startDate, endDate);
+    }
+
+    @Test
+    void shouldFailWhenEndDateIsBeforeStartDate() throws Exception {
+        LocalDate startDate = DatesMother.inTheFuture();
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("start", startDate.toString())
+                        .param("end", startDate.minusDays(1).toString()))
+                .andReturn();
+
+        List<String> expectedResponse = Arrays.asList("Invalid date range");
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
+
+        verify(availabilityService, never()).getFreeRooms(any(), any());
+    }
+
+    @Test
+    void shouldFailWhenADateIsMissing() throws Exception {
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("start", DatesMother.inTheFuture().toString()))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+
+        verify(availabilityService, never()).getFreeRooms(any(), any());
+    }
+}
@@ -0,0 +1,300 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.response.ReservationResponseDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReactiveReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(controllers = ReactiveReservationController.class)
+@ActiveProfiles("reactive")
+@Import({BatchReservationValidator.class, ReservationRequestValidator.class, SimpleMeterRegistry.class})
+public class ReactiveReservationControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveReservationService reactiveReservationService;
+
+    String path = "/reservation";
+
+    @Test
+    void shouldFailWhenRequestHasNullClientFullName() {
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete()
+                .clientFullName(null)
+                .build();
+
+        webTestClient.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestDTO)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("clientFullName must not be null", "clientFullName must not be blank"));
+
+        verify(reactiveReservationService, never()).saveReservation(any());
+    }
+
+    @Test
+    void shouldPassWhenSavingAReservation() {
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().id(7).build();
+        when(reactiveReservationService.saveReservation(any())).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.post().uri(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(ReservationResponseDTO.class)
+                .isEqualTo(responseDTO);
+    }
+
+    @Test
+    void shouldReturnEveryReservationAsAJsonArray() {
+        List<ReservationResponseDTO> reservations = List.of(
+                ReservationResponseDTOMother.complete().id(1).build(),
+                ReservationResponseDTOMother.complete().id(2).build());
+        when(reactiveReservationService.getReservations()).thenReturn(Flux.fromIterable(reservations));
+
+        webTestClient.get().uri(path)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ReservationResponseDTO.class)
+                .isEqualTo(reservations);
+
+        verify(reactiveReservationService, never()).getReservations(anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldSearchReservationsByAnyPartOfTheClientName() {
+        ReservationSearchDTO search = ReservationSearchDTO.builder()
+                .client("arci")
+                .match(ReservationSearchDTO.Match.CONTAINS)
+                .build();
+        when(reactiveReservationService.searchReservations(search, 0, 100)).thenReturn(Flux.just(
+                ReservationResponseDTOMother.complete().id(11).build()));
+
+        webTestClient.get().uri(path + "/search?client=arci&match=contains")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK)
+                .expectBodyList(ReservationResponseDTO.class).hasSize(1);
+    }
+
+    @Test
+    void shouldLinkTheNextPageWhenThePageIsFull() {
+        when(reactiveReservationService.getReservations(10, 2)).thenReturn(Flux.just(
+                ReservationResponseDTOMother.complete().id(11).build(),
+                ReservationResponseDTOMother.complete().id(12).build()));
+
+        webTestClient.get().uri(path + "?after=10&limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, link -> assertThat(link).contains("after=12", "limit=2", "rel=\"next\""))
+                .expectBodyList(ReservationResponseDTO.class).hasSize(2);
+    }
+
+    @Test
+    void shouldFailWhenPageLimitIsInvalid() {
+        webTestClient.get().uri(path + "?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("limit must be between 1 and 1000"));
+
+        webTestClient.get().uri(path + "?after=abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() {
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().id(3).version(4L).build();
+        when(reactiveReservationService.getReservation(3)).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.get().uri(path + "/3")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"4\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenReservationDoesNotExist() {
+        when(reactiveReservationService.getReservation(3))
+                .thenReturn(Mono.error(new ResourceNotFoundException("reservation not found with id: 3")));
+
+        webTestClient.get().uri(path + "/3")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains("reservation not found with id: 3"));
+    }
+
+    @Test
+    void shouldStreamReservationsAsNdjson() {
+        when(reactiveReservationService.getReservations()).thenReturn(Flux.just(
+                ReservationResponseDTOMother.complete().id(1).build(),
+                ReservationResponseDTOMother.complete().id(2).build()));
+
+        webTestClient.get().uri(path + "/stream")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> assertThat(body.trim().split("\n")).hasSize(2));
+    }
+
+    @Test
+    void shouldStreamReservationEventsAfterTheLastEventId() {
+        ReservationEventDTO event = ReservationEventDTO.builder()
+                .id(8)
+                .type(ReservationEventDTO.Type.CREATED)
+                .reservationId(3)
+                .reservation(ReservationResponseDTOMother.complete().id(3).build())
+                .build();
+        when(reactiveReservationService.getReservationEvents(7L)).thenReturn(Flux.just(event));
+
+        webTestClient.get().uri(path + "/events")
+                .header("Last-Event-ID", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .expectBody(String.class)
+                .value(body -> assertThat(body).startsWith("id:8\ndata:").contains("\"type\":\"CREATED\""));
+    }
+
+    @Test
+    void shouldSaveOnlyTheValidReservationsOfABatch() {
+        ReservationRequestDTO valid = ReservationRequestDTOMother.complete().build();
+        ReservationRequestDTO invalid = ReservationRequestDTOMother.complete().clientFullName("").build();
+        BatchReservationResultDTO saved = BatchReservationResultDTO.builder()
+                .status(BatchReservationResultDTO.Status.CREATED)
+                .build();
+        when(reactiveReservationService.saveReservations(List.of(valid))).thenReturn(Mono.just(List.of(saved)));
+
+        webTestClient.post().uri(path + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(invalid, valid))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BatchReservationResultDTO.class)
+                .value(results -> {
+                    assertThat(results.get(0).getStatus()).isEqualTo(BatchReservationResultDTO.Status.INVALID);
+                    assertThat(results.get(1).getStatus()).isEqualTo(BatchReservationResultDTO.Status.CREATED);
+                    assertThat(results.get(1).getIndex()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void shouldSaveAGroupOfReservations() {
+        List<ReservationRequestDTO> requests = List.of(
+                ReservationRequestDTOMother.complete().roomNumber(101).build(),
+                ReservationRequestDTOMother.complete().roomNumber(102).build());
+        List<ReservationResponseDTO> saved = List.of(
+                ReservationResponseDTOMother.complete().id(1).roomNumber(101).build(),
+                ReservationResponseDTOMother.complete().id(2).roomNumber(102).build());
+        when(reactiveReservationService.saveReservationGroup(requests)).thenReturn(Mono.just(saved));
+
+        webTestClient.post().uri(path + "/group")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBodyList(ReservationResponseDTO.class)
+                .isEqualTo(saved);
+    }
+
+    @Test
+    void shouldHoldARoom() {
+        RoomHoldRequestDTO requestDTO = RoomHoldRequestDTO.builder()
+                .roomNumber(101)
+                .startDate(LocalDate.now().plusDays(10))
+                .endDate(LocalDate.now().plusDays(12))
+                .build();
+        RoomHoldResponseDTO responseDTO = RoomHoldResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .roomNumber(101)
+                .build();
+        when(reactiveReservationService.holdRoom(requestDTO)).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.post().uri(path + "/hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(RoomHoldResponseDTO.class)
+                .isEqualTo(responseDTO);
+    }
+
+    @Test
+    void shouldPassIfMatchVersionWhenUpdating() {
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().id(5).version(3L).build();
+        when(reactiveReservationService.updateReservation(eq(5), any(), eq(2L))).thenReturn(Mono.just(responseDTO));
+
+        webTestClient.put().uri(path + "/5")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestDTO)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+    }
+
+    @Test
+    void shouldFailWhenIfMatchIsNotAnETag() {
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+
+        webTestClient.put().uri(path + "/5")
+                .header(HttpHeaders.IF_MATCH, "version 2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestDTO)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        verify(reactiveReservationService, never()).updateReservation(anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldPassWhenDeletingAReservation() {
+        when(reactiveReservationService.deleteReservation(5)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri(path + "/5")
+                .exchange()
+                .expectStatus().isAccepted();
+
+        verify(reactiveReservationService).deleteReservation(5);
+    }
+}
@@ -0,0 +1,122 @@
+package com.coherent.solutions.test.hotelreservationsservice.controller;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyReportDTO;
+import com.coherent.solutions.test.hotelreservationsservice.service.ReportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = ReportController.class)
+@Import(SimpleMeterRegistry.class)
+public class ReportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReportService reportService;
+
+    String path = "/reports/occupancy";
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void shouldGetTheOccupancyByFloor() throws Exception {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = from.plusDays(2);
+
+        OccupancyReportDTO responseDTO = OccupancyReportDTO.builder()
+                .from(from)
+                .to(to)
+                .groupBy(OccupancyReportDTO.GroupBy.FLOOR)
+                .groups(List.of(OccupancyDTO.builder()
+                        .group(1)
+                        .rooms(2)
+                        .roomNights(3)
+                        .occupancyRate(0.75)
+                        .occupiedRooms(List.of(1, 2))
+                        .build()))
+                .build();
+        when(reportService.getOccupancy(from, to, OccupancyReportDTO.GroupBy.FLOOR)).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("groupBy", "floor"))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(responseDTO));
+    }
+
+    @Test
+    void shouldGroupByRoomByDefault() throws Exception {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+
+        mockMvc.perform(get(path)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(1).toString()))
+                .andReturn();
+
+        verify(reportService, times(1)).getOccupancy(from, from.plusDays(1), OccupancyReportDTO.GroupBy.ROOM);
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenTheDatesAreNotARange() throws Exception {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("from", from.toString())
+                        .param("to", from.toString()))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        verify(reportService, never()).getOccupancy(any(), any(), any());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenTheReportIsLongerThanAYear() throws Exception {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(400).toString()))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        verify(reportService, never()).getOccupancy(any(), any(), any());
+    }
+
+    @Test
+    void shouldReturnBadRequestForAnUnknownGroup() throws Exception {
+        LocalDate from = LocalDate.of(2024, 3, 1);
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(1).toString())
+                        .param("groupBy", "building"))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        verify(reportService, never()).getOccupancy(any(), any(), any());
+    }
+}
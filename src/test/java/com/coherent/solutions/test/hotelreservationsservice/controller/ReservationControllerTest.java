@@ -1,35 +1,57 @@
 package com.coherent.solutions.test.hotelreservationsservice.controller;
 
 import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
 import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
 import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
 import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.response.ReservationResponseDTOMother;
 import com.coherent.solutions.test.hotelreservationsservice.objectmother.utils.DatesMother;
 import com.coherent.solutions.test.hotelreservationsservice.service.ReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ConflictException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.HoldNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomAlreadyBookedException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomBeingBookedException;
 import com.github.javafaker.Faker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(controllers = ReservationController.class)
+@Import({BatchReservationValidator.class, ReservationRequestValidator.class, SimpleMeterRegistry.class})
 public class ReservationControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -42,6 +64,14 @@ public class ReservationControllerTest {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry.clear();
+    }
+
     @Test
     void shouldFailWhenRequestHasNullClientFullName() throws Exception {
         ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete()
@@ -162,6 +192,201 @@ public class ReservationControllerTest {
         verify(reservationService).saveReservation(any());
     }
 
+    @Test
+    void shouldCountConflictsWhenRoomIsAlreadyBooked() throws Exception {
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+
+        when(reservationService.saveReservation(any())).thenThrow(new RoomAlreadyBookedException("room already booked for given dates"));
+
+        MvcResult response = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(meterRegistry.get("reservation.errors").tag("type", "room_already_booked").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldSaveABatchReportingInvalidReservations() throws Exception {
+        ReservationRequestDTO validRequest = ReservationRequestDTOMother.complete().build();
+        ReservationRequestDTO invalidRequest = ReservationRequestDTOMother.complete()
+                .clientFullName("")
+                .startDate(DatesMother.inThePast())
+                .build();
+        ReservationRequestDTO conflictingRequest = ReservationRequestDTOMother.complete().build();
+
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().build();
+        when(reservationService.saveReservations(Arrays.asList(validRequest, conflictingRequest))).thenReturn(Arrays.asList(
+                BatchReservationResultDTO.builder().index(0).status(BatchReservationResultDTO.Status.CREATED).reservation(responseDTO).build(),
+                BatchReservationResultDTO.builder().index(1).status(BatchReservationResultDTO.Status.CONFLICT)
+                        .errors(Arrays.asList("room already booked for given dates")).build()));
+
+        MvcResult response = mockMvc.perform(post(path.concat("/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(validRequest, invalidRequest, conflictingRequest))))
+                .andReturn();
+
+        String expectedResponse = objectMapper.writeValueAsString(Arrays.asList(
+                BatchReservationResultDTO.builder().index(0).status(BatchReservationResultDTO.Status.CREATED).reservation(responseDTO).build(),
+                BatchReservationResultDTO.builder().index(1).status(BatchReservationResultDTO.Status.INVALID)
+                        .errors(Arrays.asList("clientFullName must not be blank", "Invalid date range")).build(),
+                BatchReservationResultDTO.builder().index(2).status(BatchReservationResultDTO.Status.CONFLICT)
+                        .errors(Arrays.asList("room already booked for given dates")).build()));
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(expectedResponse);
+
+        verify(reservationService).saveReservations(Arrays.asList(validRequest, conflictingRequest));
+    }
+
+    @Test
+    void shouldSaveAGroupOfReservations() throws Exception {
+        List<ReservationRequestDTO> requests = Arrays.asList(
+                ReservationRequestDTOMother.complete().roomNumber(101).build(),
+                ReservationRequestDTOMother.complete().roomNumber(102).build());
+        List<ReservationResponseDTO> saved = Arrays.asList(
+                ReservationResponseDTOMother.complete().id(1).roomNumber(101).build(),
+                ReservationResponseDTOMother.complete().id(2).roomNumber(102).build());
+        when(reservationService.saveReservationGroup(requests)).thenReturn(saved);
+
+        MvcResult response = mockMvc.perform(post(path.concat("/group"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(saved));
+    }
+
+    @Test
+    void shouldRejectTheWholeGroupWhenOneReservationIsInvalid() throws Exception {
+        List<ReservationRequestDTO> requests = Arrays.asList(
+                ReservationRequestDTOMother.complete().roomNumber(101).build(),
+                ReservationRequestDTOMother.complete().roomNumber(102).clientFullName("").build());
+
+        MvcResult response = mockMvc.perform(post(path.concat("/group"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andReturn();
+
+        List<String> expectedResponse = Arrays.asList("reservation 1 of the group: clientFullName must not be blank");
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
+
+        verify(reservationService, never()).saveReservationGroup(any());
+    }
+
+    @Test
+    void shouldHoldARoom() throws Exception {
+        RoomHoldRequestDTO requestDTO = RoomHoldRequestDTO.builder()
+                .roomNumber(101)
+                .startDate(DatesMother.inTheFuture())
+                .build();
+        requestDTO.setEndDate(requestDTO.getStartDate().plusDays(2));
+        RoomHoldResponseDTO responseDTO = RoomHoldResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .roomNumber(101)
+                .startDate(requestDTO.getStartDate())
+                .endDate(requestDTO.getEndDate())
+                .expiresAt(Instant.now().plusSeconds(600))
+                .build();
+        when(reservationService.holdRoom(requestDTO)).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(post(path.concat("/hold"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(responseDTO));
+    }
+
+    @Test
+    void shouldFailWhenHoldingARoomForDatesInThePast() throws Exception {
+        RoomHoldRequestDTO requestDTO = RoomHoldRequestDTO.builder()
+                .roomNumber(101)
+                .startDate(DatesMother.inThePast())
+                .endDate(DatesMother.inTheFuture())
+                .build();
+
+        MvcResult response = mockMvc.perform(post(path.concat("/hold"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getResponse().getContentAsString()).contains("Invalid date range");
+
+        verify(reservationService, never()).holdRoom(any());
+    }
+
+    @Test
+    void shouldReleaseAHold() throws Exception {
+        UUID holdId = UUID.randomUUID();
+
+        MvcResult response = mockMvc.perform(delete(path.concat("/hold/").concat(holdId.toString())))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.ACCEPTED.value());
+
+        verify(reservationService).releaseHold(holdId);
+    }
+
+    @Test
+    void shouldCountMissingHoldsApartFromMissingReservations() throws Exception {
+        UUID holdId = UUID.randomUUID();
+
+        doThrow(new HoldNotFoundException("hold not found with id: " + holdId))
+                .when(reservationService).releaseHold(holdId);
+
+        MvcResult response = mockMvc.perform(delete(path.concat("/hold/").concat(holdId.toString())))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(meterRegistry.get("reservation.errors").tag("type", "hold_not_found").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("reservation.errors").tag("type", "reservation_not_found").counter()).isNull();
+    }
+
+    @Test
+    void shouldReportANullReservationOfABatchAsInvalid() throws Exception {
+        ReservationRequestDTO validRequest = ReservationRequestDTOMother.complete().build();
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().build();
+        when(reservationService.saveReservations(List.of(validRequest))).thenReturn(List.of(
+                BatchReservationResultDTO.builder().index(0).status(BatchReservationResultDTO.Status.CREATED).reservation(responseDTO).build()));
+
+        MvcResult response = mockMvc.perform(post(path.concat("/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null, " + objectMapper.writeValueAsString(validRequest) + "]"))
+                .andReturn();
+
+        String expectedResponse = objectMapper.writeValueAsString(Arrays.asList(
+                BatchReservationResultDTO.builder().index(0).status(BatchReservationResultDTO.Status.INVALID)
+                        .errors(List.of("reservation must not be null")).build(),
+                BatchReservationResultDTO.builder().index(1).status(BatchReservationResultDTO.Status.CREATED).reservation(responseDTO).build()));
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(expectedResponse);
+    }
+
+    @Test
+    void shouldFailWhenBatchIsEmpty() throws Exception {
+        MvcResult response = mockMvc.perform(post(path.concat("/batch"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andReturn();
+
+        List<String> expectedResponse = Arrays.asList("batch must have between 1 and 1000 reservations");
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
+
+        verify(reservationService, never()).saveReservations(any());
+    }
+
     @Test
     void shouldGetAListOfReservations() throws Exception {
         ReservationResponseDTO reservationResponseDTO = ReservationResponseDTOMother.complete().build();
@@ -180,6 +405,218 @@ public class ReservationControllerTest {
         verify(reservationService).getReservations();
     }
 
+    @Test
+    void shouldGetAReservationWithItsVersionAsETag() throws Exception {
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().version(3L).build();
+        when(reservationService.getReservation(responseDTO.getId())).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(get(path.concat("/{id}"), responseDTO.getId()))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"3\"");
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(responseDTO));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenTheETagMatches() throws Exception {
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().version(3L).build();
+        when(reservationService.getReservation(responseDTO.getId())).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(get(path.concat("/{id}"), responseDTO.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"3\"");
+        assertThat(response.getResponse().getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void shouldGetAReservationWhenTheETagIsOutdated() throws Exception {
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().version(4L).build();
+        when(reservationService.getReservation(responseDTO.getId())).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(get(path.concat("/{id}"), responseDTO.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"4\"");
+    }
+
+    @Test
+    void shouldGetTheReservationsOfARoom() throws Exception {
+        List<ReservationResponseDTO> responseDTOs = List.of(ReservationResponseDTOMother.complete().build());
+        when(reservationService.getRoomReservations(7)).thenReturn(responseDTOs);
+
+        MvcResult response = mockMvc.perform(get(path.concat("/room/{roomNumber}"), 7))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(responseDTOs));
+    }
+
+    @Test
+    void shouldSearchReservationsByClientWithALinkToTheNextPage() throws Exception {
+        ReservationResponseDTO first = ReservationResponseDTOMother.complete().id(11).build();
+        ReservationResponseDTO second = ReservationResponseDTOMother.complete().id(12).build();
+        ReservationSearchDTO search = ReservationSearchDTO.builder()
+                .client("garc")
+                .match(ReservationSearchDTO.Match.PREFIX)
+                .roomNumber(7)
+                .build();
+
+        when(reservationService.searchReservations(search, 10, 2)).thenReturn(Arrays.asList(first, second));
+
+        MvcResult response = mockMvc.perform(get(path.concat("/search?client=garc&room=7&after=10&limit=2")))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(Arrays.asList(first, second)));
+        assertThat(response.getResponse().getHeader(HttpHeaders.LINK))
+                .isEqualTo("<http://localhost/reservation/search?client=garc&room=7&after=12&limit=2>; rel=\"next\"");
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenSearchingByAPartOfTheNameShorterThanThreeCharacters() throws Exception {
+        MvcResult response = mockMvc.perform(get(path.concat("/search"))
+                        .param("client", " jo ")
+                        .param("match", "contains"))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getResponse().getContentAsString()).contains("client must have 3 characters at least");
+        verify(reservationService, never()).searchReservations(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenSearchingWithAnUnknownMatch() throws Exception {
+        MvcResult response = mockMvc.perform(get(path.concat("/search"))
+                        .param("client", "garcia")
+                        .param("match", "soundex"))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        verify(reservationService, never()).searchReservations(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldGetAPageOfReservationsWithALinkToTheNextPage() throws Exception {
+        ReservationResponseDTO first = ReservationResponseDTOMother.complete().id(11).build();
+        ReservationResponseDTO second = ReservationResponseDTOMother.complete().id(12).build();
+
+        when(reservationService.getReservations(10, 2)).thenReturn(Arrays.asList(first, second));
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("after", "10")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        String expectedResponse = objectMapper.writeValueAsString(Arrays.asList(first, second));
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(expectedResponse);
+        assertThat(response.getResponse().getHeader(HttpHeaders.LINK)).isEqualTo("<http://localhost/reservation?after=12&limit=2>; rel=\"next\"");
+
+        verify(reservationService).getReservations(10, 2);
+        verify(reservationService, never()).getReservations();
+    }
+
+    @Test
+    void shouldGetTheLastPageOfReservationsWithoutALinkToTheNextPage() throws Exception {
+        ReservationResponseDTO last = ReservationResponseDTOMother.complete().id(13).build();
+
+        when(reservationService.getReservations(12, 2)).thenReturn(Arrays.asList(last));
+
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("after", "12")
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getHeader(HttpHeaders.LINK)).isNull();
+
+        verify(reservationService).getReservations(12, 2);
+    }
+
+    @Test
+    void shouldFailWhenPageLimitIsOutOfRange() throws Exception {
+        MvcResult response = mockMvc.perform(get(path)
+                        .param("limit", "1001")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        List<String> expectedResponse = Arrays.asList("limit must be between 1 and 1000");
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
+
+        verify(reservationService, never()).getReservations(anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldStreamReservationsAsNdjson() throws Exception {
+        ReservationResponseDTO first = ReservationResponseDTOMother.complete().id(1).build();
+        ReservationResponseDTO second = ReservationResponseDTOMother.complete().id(2).build();
+
+        doAnswer(invocation -> {
+            Consumer<ReservationResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(reservationService).streamReservations(any());
+
+        MvcResult asyncResult = mockMvc.perform(get(path.concat("/stream")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult response = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        String expectedResponse = objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n";
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentType()).isEqualTo("application/x-ndjson");
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(expectedResponse);
+    }
+
+    @Test
+    void shouldReturnTheChangesAfterTheGivenSequence() throws Exception {
+        ReservationChangeDTO change = ReservationChangeDTO.builder()
+                .sequence(11)
+                .type(ReservationChange.Type.DELETED)
+                .reservationId(3)
+                .build();
+        when(reservationService.getChanges(10, 100)).thenReturn(List.of(change));
+
+        MvcResult response = mockMvc.perform(get(path.concat("/changes?after=10"))).andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentAsString()).isEqualTo(objectMapper.writeValueAsString(List.of(change)));
+    }
+
+    @Test
+    void shouldStreamReservationEventsAfterTheLastEventId() throws Exception {
+        ReservationEventDTO event = ReservationEventDTO.builder()
+                .id(8)
+                .type(ReservationEventDTO.Type.DELETED)
+                .reservationId(3)
+                .build();
+        when(reservationService.getReservationEvents(7L)).thenReturn(Flux.just(event));
+
+        MvcResult asyncResult = mockMvc.perform(get(path.concat("/events"))
+                        .header("Last-Event-ID", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult response = mockMvc.perform(asyncDispatch(asyncResult)).andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(response.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(response.getResponse().getContentAsString())
+                .isEqualTo("id:8\ndata:" + objectMapper.writeValueAsString(event) + "\n\n");
+    }
+
     @Test
     void shouldFailWhenUpdatingAReservationAndRequestHasNullClientFullName() throws Exception {
         int id = Faker.instance().number().numberBetween(1, 999);
@@ -198,7 +635,7 @@ public class ReservationControllerTest {
         assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
         assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
 
-        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class));
+        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
     }
 
     @Test
@@ -219,7 +656,7 @@ public class ReservationControllerTest {
         assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
         assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
 
-        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class));
+        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
     }
 
     @Test
@@ -240,7 +677,7 @@ public class ReservationControllerTest {
         assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
         assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
 
-        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class));
+        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
     }
 
     @Test
@@ -262,7 +699,7 @@ public class ReservationControllerTest {
         assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
         assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
 
-        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class));
+        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
     }
 
     @Test
@@ -285,7 +722,7 @@ public class ReservationControllerTest {
         assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
         assertThat(response.getResponse().getContentAsString()).contains(expectedResponse);
 
-        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class));
+        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
     }
 
     @Test
@@ -294,7 +731,7 @@ public class ReservationControllerTest {
         ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
 
         ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().build();
-        when(reservationService.updateReservation(id, requestDTO)).thenReturn(responseDTO);
+        when(reservationService.updateReservation(id, requestDTO, null)).thenReturn(responseDTO);
 
         MvcResult response = mockMvc.perform(put(path.concat("/{id}"), id)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -306,7 +743,81 @@ public class ReservationControllerTest {
         assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.ACCEPTED.value());
         assertThat(response.getResponse().getContentAsString()).isEqualTo(expectedResponse);
 
-        verify(reservationService).updateReservation(anyInt(), any(ReservationRequestDTO.class));
+        verify(reservationService).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
+    }
+
+    @Test
+    void shouldUpdateAReservationWhenIfMatchHasItsVersion() throws Exception {
+        int id = Faker.instance().number().numberBetween(1, 999);
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+
+        ReservationResponseDTO responseDTO = ReservationResponseDTOMother.complete().version(4L).build();
+        when(reservationService.updateReservation(id, requestDTO, 3L)).thenReturn(responseDTO);
+
+        MvcResult response = mockMvc.perform(put(path.concat("/{id}"), id)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.ACCEPTED.value());
+        assertThat(response.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo("\"4\"");
+
+        verify(reservationService).updateReservation(id, requestDTO, 3L);
+    }
+
+    @Test
+    void shouldFailWhenIfMatchIsNotAVersion() throws Exception {
+        int id = Faker.instance().number().numberBetween(1, 999);
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+
+        MvcResult response = mockMvc.perform(put(path.concat("/{id}"), id)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.PRECONDITION_FAILED.value());
+
+        verify(reservationService, never()).updateReservation(anyInt(), any(ReservationRequestDTO.class), any());
+    }
+
+    @Test
+    void shouldAnswerConflictWhenTheReservationIsUpdatedConcurrently() throws Exception {
+        int id = Faker.instance().number().numberBetween(1, 999);
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+
+        when(reservationService.updateReservation(id, requestDTO, 3L))
+                .thenThrow(new ConflictException("reservation was modified by another request"));
+
+        MvcResult response = mockMvc.perform(put(path.concat("/{id}"), id)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(response.getResponse().getContentAsString()).contains("reservation was modified by another request");
+        assertThat(meterRegistry.get("reservation.errors").tag("type", "reservation_modified").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountConflictsWhenTheRoomIsBeingBookedByAnotherProcess() throws Exception {
+        ReservationRequestDTO requestDTO = ReservationRequestDTOMother.complete().build();
+
+        when(reservationService.saveReservation(any()))
+                .thenThrow(new RoomBeingBookedException("room is being booked by another request, try again"));
+
+        MvcResult response = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(meterRegistry.get("reservation.errors").tag("type", "room_being_booked").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("reservation.errors").tag("type", "reservation_modified").counter()).isNull();
     }
 
     @Test
@@ -321,4 +832,20 @@ public class ReservationControllerTest {
 
         verify(reservationService).deleteReservation(id);
     }
+
+    @Test
+    void shouldCountNotFoundErrorsWhenDeletingAMissingReservation() throws Exception {
+        int id = Faker.instance().number().numberBetween(1, 999);
+
+        doThrow(new ResourceNotFoundException("reservation not found with id: " + id))
+                .when(reservationService).deleteReservation(id);
+
+        MvcResult response = mockMvc.perform(delete(path.concat("/{id}"), id)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(HttpStatus.NOT_FOUND.value());
+        assertThat(meterRegistry.get("reservation.errors").tag("type", "reservation_not_found").counter().count())
+                .isEqualTo(1);
+    }
 }
@@ -19,7 +19,8 @@ public class ReservationResponseDTOMother {
                 .clientFullName(faker.name().fullName())
                 .roomNumber(faker.number().numberBetween(1,999))
                 .reservationDates(
-                        Arrays.asList(startDate, endDate));
+                        Arrays.asList(startDate, endDate))
+                .version(0L);
     }
 
 }
@@ -6,7 +6,6 @@ import com.coherent.solutions.test.hotelreservationsservice.objectmother.utils.D
 import com.github.javafaker.Faker;
 
 import java.time.LocalDate;
-import java.util.Arrays;
 
 public class ReservationMother {
     private static Faker faker = Faker.instance();
@@ -20,16 +19,16 @@ public class ReservationMother {
                 .id(faker.number().numberBetween(1,999))
                 .roomNumber(faker.number().numberBetween(1,999))
                 .clientFullName(faker.name().fullName())
-                .reservationDates(
-                        Arrays.asList(startDate, endDate));
+                .startDate(startDate)
+                .endDate(endDate);
     }
 
     public static Reservation.ReservationBuilder inThePast() {
         LocalDate endDate = DatesMother.inThePast();
         LocalDate startDate = DatesMother.inThePastFromDate(endDate);
         return  complete()
-                .reservationDates(
-                        Arrays.asList(startDate,endDate));
+                .startDate(startDate)
+                .endDate(endDate);
     }
 
     public static Reservation.ReservationBuilder fromRequest(ReservationRequestDTO request) {
@@ -37,8 +36,7 @@ public class ReservationMother {
                 .id(faker.number().numberBetween(1,999))
                 .roomNumber(request.getRoomNumber())
                 .clientFullName(request.getClientFullName())
-                .reservationDates(
-                        Arrays.asList(request.getStartDate(), request.getEndDate())
-                );
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate());
     }
 }
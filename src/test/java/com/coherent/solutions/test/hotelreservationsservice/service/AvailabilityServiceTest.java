@@ -0,0 +1,121 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.AvailabilityResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.model.ReservationMother;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.utils.DatesMother;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHolds;
+import com.coherent.solutions.test.hotelreservationsservice.service.impl.AvailabilityServiceImpl;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityServiceTest {
+
+    @InjectMocks
+    private AvailabilityServiceImpl availabilityServiceImpl;
+
+    @Spy
+    private RoomReservationIndex roomReservationIndex = new RoomReservationIndex();
+
+    //covers nothing unless stubbed, checks go to the index
+    @Mock
+    private RoomOccupancyBitmap roomOccupancyBitmap;
+
+    @Spy
+    private RoomHolds roomHolds = new RoomHolds();
+
+    @Spy
+    private HotelProperties hotelProperties = new HotelProperties();
+
+    @BeforeEach
+    public void setUp() {
+        hotelProperties.getRooms().setFirst(101);
+        hotelProperties.getRooms().setLast(105);
+    }
+
+    @Test
+    public void shouldReturnEveryRoomWhenNothingIsBooked() {
+        LocalDate startDate = DatesMother.inTheFuture();
+        LocalDate endDate = DatesMother.inTheFutureFromDate(startDate);
+
+        AvailabilityResponseDTO response = availabilityServiceImpl.getFreeRooms(startDate, endDate);
+
+        assertEquals(startDate, response.getStartDate());
+        assertEquals(endDate, response.getEndDate());
+        assertEquals(Arrays.asList(101, 102, 103, 104, 105), response.getRoomNumbers());
+    }
+
+    @Test
+    public void shouldLeaveOutRoomsBookedForOverlappingDates() {
+        /*
+        room 102                  Start |-------------|-------------| End
+        room 104                                                    Start |-------------| End
+        room 999                  Start |-------------|-------------| End
+        requestSDates   Start |-------------|-------------|-------------| End
+        */
+        LocalDate startDate = DatesMother.inTheFuture();
+        LocalDate endDate = startDate.plusDays(3);
+
+        roomReservationIndex.put(reservation(1, 102, startDate.plusDays(1), endDate.minusDays(1)));
+        roomReservationIndex.put(reservation(2, 104, endDate, endDate.plusDays(1)));
+        roomReservationIndex.put(reservation(3, 999, startDate.plusDays(1), endDate.minusDays(1)));
+
+        AvailabilityResponseDTO response = availabilityServiceImpl.getFreeRooms(startDate, endDate);
+
+        assertEquals(Arrays.asList(101, 103, 104, 105), response.getRoomNumbers());
+    }
+
+    @Test
+    public void shouldLeaveOutRoomsHeldForOverlappingDates() {
+        LocalDate startDate = DatesMother.inTheFuture();
+        LocalDate endDate = startDate.plusDays(2);
+        when(roomOccupancyBitmap.covers(anyInt(), any(), any())).thenReturn(true);
+
+        roomHolds.put(hold(102, startDate.plusDays(1), endDate, Instant.now().plusSeconds(600)));
+        roomHolds.put(hold(103, endDate, endDate.plusDays(1), Instant.now().plusSeconds(600)));
+        roomHolds.put(hold(104, startDate, endDate, Instant.now().minusSeconds(1)));
+
+        AvailabilityResponseDTO response = availabilityServiceImpl.getFreeRooms(startDate, endDate);
+
+        assertEquals(Arrays.asList(101, 103, 104, 105), response.getRoomNumbers());
+    }
+
+    private RoomHold hold(int roomNumber, LocalDate startDate, LocalDate endDate, Instant expiresAt) {
+        return RoomHold.builder()
+                .id(UUID.randomUUID())
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(endDate)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private Reservation reservation(int id, int roomNumber, LocalDate startDate, LocalDate endDate) {
+        return ReservationMother.complete()
+                .id(id)
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(endDate)
+                .build();
+    }
+}
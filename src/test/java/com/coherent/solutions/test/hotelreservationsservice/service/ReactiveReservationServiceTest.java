@@ -0,0 +1,124 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomAlreadyBookedException;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationRow;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.response.ReservationResponseDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReactiveReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.service.impl.ReactiveReservationServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveReservationServiceTest {
+
+    @InjectMocks
+    private ReactiveReservationServiceImpl reactiveReservationServiceImpl;
+
+    @Mock
+    private ReactiveReservationRepository reactiveReservationRepository;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Test
+    void shouldMapTheRowWhenGettingAReservation() {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        when(reactiveReservationRepository.findById(1)).thenReturn(Mono.just(row(1, startDate)));
+
+        StepVerifier.create(reactiveReservationServiceImpl.getReservation(1))
+                .assertNext(reservation -> {
+                    assertEquals(1, reservation.getId());
+                    assertEquals(List.of(startDate, startDate.plusDays(2)), reservation.getReservationDates());
+                    assertEquals(0L, reservation.getVersion());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailWhenReservationDoesNotExist() {
+        when(reactiveReservationRepository.findById(1)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveReservationServiceImpl.getReservation(1))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldEmitEveryReservationOnlyAsRequested() {
+        LocalDate startDate = LocalDate.now().plusDays(5);
+        when(reactiveReservationRepository.findAllByOrderByIdAsc())
+                .thenReturn(Flux.just(row(1, startDate), row(2, startDate), row(3, startDate)));
+
+        StepVerifier.create(reactiveReservationServiceImpl.getReservations(), 1)
+                .expectNextMatches(reservation -> reservation.getId() == 1)
+                .thenRequest(2)
+                .expectNextMatches(reservation -> reservation.getId() == 2)
+                .expectNextMatches(reservation -> reservation.getId() == 3)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotSaveUntilSubscribed() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete().build();
+        ReservationResponseDTO response = ReservationResponseDTOMother.complete().build();
+        when(reservationService.saveReservation(request)).thenReturn(response);
+
+        Mono<ReservationResponseDTO> saved = reactiveReservationServiceImpl.saveReservation(request);
+        verifyNoInteractions(reservationService);
+
+        StepVerifier.create(saved)
+                .expectNext(response)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldEmitTheErrorWhenSavingFails() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete().build();
+        when(reservationService.saveReservation(request))
+                .thenThrow(new RoomAlreadyBookedException("room already booked for given dates"));
+
+        StepVerifier.create(reactiveReservationServiceImpl.saveReservation(request))
+                .expectError(RoomAlreadyBookedException.class)
+                .verify();
+    }
+
+    @Test
+    void shouldCompleteWhenDeletingAReservation() {
+        StepVerifier.create(reactiveReservationServiceImpl.deleteReservation(1))
+                .verifyComplete();
+
+        verify(reservationService).deleteReservation(1);
+        verify(reservationService, never()).saveReservation(any());
+    }
+
+    private ReservationRow row(int id, LocalDate startDate) {
+        return ReservationRow.builder()
+                .id(id)
+                .clientFullName("client " + id)
+                .roomNumber(id)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2))
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.OccupancyReportDTO;
+import com.coherent.solutions.test.hotelreservationsservice.service.impl.ReportServiceImpl;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.report.OccupancyCalculator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class ReportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+
+    @InjectMocks
+    private ReportServiceImpl reportServiceImpl;
+
+    @Spy
+    private RoomReservationIndex roomReservationIndex = new RoomReservationIndex();
+
+    @Spy
+    private HotelProperties hotelProperties = new HotelProperties();
+
+    @BeforeEach
+    public void setUp() {
+        hotelProperties.getRooms().setFirst(101);
+        hotelProperties.getRooms().setLast(103);
+        hotelProperties.getRooms().setPerFloor(100);
+    }
+
+    @Test
+    public void shouldCountOnlyTheNightsInsideTheReport() {
+        /*
+        report                Start |---|---|---|---| End
+        room 101        Start |---|---|---| End
+        room 101                                Start |---|---| End
+        room 102                    Start |---| End
+        */
+        roomReservationIndex.put(1, 101, FROM.minusDays(1), FROM.plusDays(2));
+        roomReservationIndex.put(2, 101, FROM.plusDays(3), FROM.plusDays(5));
+        roomReservationIndex.put(3, 102, FROM, FROM.plusDays(1));
+
+        OccupancyReportDTO report = reportServiceImpl.getOccupancy(FROM, FROM.plusDays(4), OccupancyReportDTO.GroupBy.ROOM);
+
+        assertEquals(OccupancyReportDTO.GroupBy.ROOM, report.getGroupBy());
+        assertEquals(3, report.getGroups().size());
+        OccupancyDTO room101 = report.getGroups().get(0);
+        assertEquals(101, room101.getGroup());
+        assertEquals(List.of(1, 1, 0, 1), room101.getOccupiedRooms());
+        assertEquals(3, room101.getRoomNights());
+        assertEquals(0.75, room101.getOccupancyRate());
+        assertEquals(List.of(1, 0, 0, 0), report.getGroups().get(1).getOccupiedRooms());
+        assertEquals(0, report.getGroups().get(2).getRoomNights());
+    }
+
+    @Test
+    public void shouldAddUpTheRoomsOfAFloorAndOfTheHotel() {
+        roomReservationIndex.put(1, 101, FROM, FROM.plusDays(2));
+        roomReservationIndex.put(2, 102, FROM.plusDays(1), FROM.plusDays(2));
+        roomReservationIndex.put(3, 202, FROM, FROM.plusDays(1));
+        //booked rooms outside of the configured ones are counted too
+        roomReservationIndex.put(4, 305, FROM, FROM.plusDays(2));
+
+        OccupancyReportDTO byFloor = reportServiceImpl.getOccupancy(FROM, FROM.plusDays(2), OccupancyReportDTO.GroupBy.FLOOR);
+        OccupancyReportDTO byHotel = reportServiceImpl.getOccupancy(FROM, FROM.plusDays(2), OccupancyReportDTO.GroupBy.HOTEL);
+
+        assertEquals(List.of(1, 2, 3), byFloor.getGroups().stream().map(OccupancyDTO::getGroup).toList());
+        assertEquals(3, byFloor.getGroups().get(0).getRooms());
+        assertEquals(List.of(1, 2), byFloor.getGroups().get(0).getOccupiedRooms());
+        assertEquals(List.of(1, 0), byFloor.getGroups().get(1).getOccupiedRooms());
+        assertEquals(1.0, byFloor.getGroups().get(2).getOccupancyRate());
+
+        OccupancyDTO hotel = byHotel.getGroups().get(0);
+        assertEquals(1, byHotel.getGroups().size());
+        assertEquals(5, hotel.getRooms());
+        assertEquals(List.of(3, 3), hotel.getOccupiedRooms());
+        assertEquals(6, hotel.getRoomNights());
+    }
+
+    @Test
+    public void shouldCalculateTheSameOccupancyInParallelAndInOneThread() {
+        int[] rooms = IntStream.rangeClosed(1, 1000).toArray();
+        for (int room : rooms) {
+            for (int stay = 0; stay < 20; stay++) {
+                LocalDate startDate = FROM.plusDays(stay * 5L + room % 4);
+                roomReservationIndex.put(room * 100 + stay, room, startDate, startDate.plusDays(1 + room % 3));
+            }
+        }
+
+        Map<Integer, int[]> parallel = new OccupancyCalculator(roomReservationIndex, ForkJoinPool.commonPool())
+                .calculate(rooms, FROM.plusDays(3), FROM.plusDays(60), room -> room / 100);
+        Map<Integer, int[]> sequential = new OccupancyCalculator(roomReservationIndex, new ForkJoinPool(1))
+                .calculate(rooms, FROM.plusDays(3), FROM.plusDays(60), room -> room / 100);
+
+        assertEquals(sequential.keySet(), parallel.keySet());
+        sequential.forEach((floor, occupied) -> assertArrayEquals(occupied, parallel.get(floor)));
+    }
+}
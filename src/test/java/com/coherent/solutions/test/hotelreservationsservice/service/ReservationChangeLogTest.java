@@ -0,0 +1,116 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationChangeDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomAlreadyBookedException;
+import com.coherent.solutions.test.hotelreservationsservice.model.ReservationChange;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.service.changelog.InMemoryReservationChangeSink;
+import com.coherent.solutions.test.hotelreservationsservice.service.changelog.ReservationChangeRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ReservationChangeLogTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationChangeRelay reservationChangeRelay;
+
+    @SpyBean
+    private InMemoryReservationChangeSink reservationChangeSink;
+
+    @BeforeEach
+    public void setUp() {
+        reservationChangeRelay.relayAll();
+        reservationChangeSink.clear();
+    }
+
+    @Test
+    public void shouldPublishEveryChangeInOrderWithIncreasingSequences() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(5001).build());
+        ReservationResponseDTO updated = reservationService.updateReservation(saved.getId(),
+                request(5001).clientFullName("updated").build(), null);
+        reservationService.deleteReservation(saved.getId());
+
+        assertTrue(reservationChangeSink.getChanges().isEmpty());
+        reservationChangeRelay.relayAll();
+
+        List<ReservationChangeDTO> changes = reservationChangeSink.getChanges();
+        assertEquals(3, changes.size());
+        assertEquals(List.of(ReservationChange.Type.CREATED, ReservationChange.Type.UPDATED, ReservationChange.Type.DELETED),
+                changes.stream().map(ReservationChangeDTO::getType).toList());
+        assertEquals(changes.get(0).getSequence() + 1, changes.get(1).getSequence());
+        assertEquals(changes.get(1).getSequence() + 1, changes.get(2).getSequence());
+
+        assertEquals(saved, changes.get(0).getReservation());
+        assertEquals(updated, changes.get(1).getReservation());
+        assertEquals(1L, changes.get(1).getReservation().getVersion());
+        assertEquals(saved.getId(), changes.get(2).getReservationId());
+        assertNull(changes.get(2).getReservation());
+    }
+
+    @Test
+    public void shouldNotLogWritesThatAreRolledBack() {
+        reservationService.saveReservation(request(5002).build());
+        assertThrows(RoomAlreadyBookedException.class, () -> reservationService.saveReservation(request(5002).build()));
+
+        reservationChangeRelay.relayAll();
+
+        assertEquals(1, reservationChangeSink.getChanges().size());
+    }
+
+    @Test
+    public void shouldSendABatchAgainWhenTheSinkFails() {
+        reservationService.saveReservation(request(5003).build());
+
+        doThrow(new IllegalStateException("sink down")).when(reservationChangeSink).send(any());
+        assertThrows(IllegalStateException.class, () -> reservationChangeRelay.relayAll());
+        doCallRealMethod().when(reservationChangeSink).send(any());
+
+        reservationChangeRelay.relayAll();
+
+        assertEquals(1, reservationChangeSink.getChanges().size());
+        assertEquals(5003, reservationChangeSink.getChanges().get(0).getReservation().getRoomNumber());
+    }
+
+    @Test
+    public void shouldReadPublishedChangesIncrementally() {
+        reservationService.saveReservation(request(5004).build());
+        reservationService.saveReservation(request(5005).build());
+        reservationChangeRelay.relayAll();
+        long first = reservationChangeSink.getChanges().get(0).getSequence();
+
+        List<ReservationChangeDTO> page = reservationService.getChanges(first - 1, 1);
+        List<ReservationChangeDTO> next = reservationService.getChanges(page.get(0).getSequence(), 10);
+
+        assertEquals(5004, page.get(0).getReservation().getRoomNumber());
+        assertEquals(1, next.size());
+        assertEquals(5005, next.get(0).getReservation().getRoomNumber());
+    }
+
+    private ReservationRequestDTO.ReservationRequestDTOBuilder request(int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        return ReservationRequestDTOMother.complete()
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2));
+    }
+}
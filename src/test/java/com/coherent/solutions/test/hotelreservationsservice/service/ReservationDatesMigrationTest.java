@@ -0,0 +1,127 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.repository.migration.ReservationDatesMigration;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndexLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrated-reservations;DB_CLOSE_DELAY=-1"
+})
+public class ReservationDatesMigrationTest {
+
+    //the collection table and foreign key hibernate created for the reservationDates collection of the first version
+    private static final String CREATE_LEGACY_TABLE = """
+        create table reservation_dates (
+            reservation_id integer not null,
+            reservation_date date,
+            constraint FKJ2PU0NECMI4LT6790CS0PN5KA foreign key (reservation_id) references reservation
+        )
+        """;
+
+    private static final String LEGACY_FOREIGN_KEYS = """
+        select count(*)
+        from information_schema.table_constraints
+        where upper(table_name) = 'RESERVATION_DATES'
+        and constraint_type = 'FOREIGN KEY'
+        """;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationDatesMigration reservationDatesMigration;
+
+    @Autowired
+    private RoomReservationIndexLoader roomReservationIndexLoader;
+
+    @Autowired
+    private RoomReservationIndex roomReservationIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate startDate = LocalDate.now().plusDays(20);
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.execute(CREATE_LEGACY_TABLE);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("drop table reservation_dates");
+    }
+
+    @Test
+    public void shouldCopyTheDatesAndLetLegacyReservationsBeDeleted() {
+        insertLegacyReservation(900001, 9101);
+
+        reservationDatesMigration.migrate();
+
+        ReservationResponseDTO migrated = reservationService.getReservation(900001);
+        assertEquals(List.of(startDate, startDate.plusDays(2)), migrated.getReservationDates());
+        assertEquals(0, jdbcTemplate.queryForObject(LEGACY_FOREIGN_KEYS, Integer.class));
+
+        reservationService.deleteReservation(900001);
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.getReservation(900001));
+    }
+
+    @Test
+    public void shouldDropTheForeignKeyOfDatabasesMigratedBefore() {
+        insertLegacyReservation(900002, 9102);
+        jdbcTemplate.update("update reservation set start_date = ?, end_date = ? where id = 900002",
+                startDate, startDate.plusDays(2));
+
+        reservationDatesMigration.migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject(LEGACY_FOREIGN_KEYS, Integer.class));
+        reservationService.deleteReservation(900002);
+    }
+
+    @Test
+    public void shouldLeaveReservationsWithoutDatesOutOfTheIndexes() {
+        insertLegacyReservation(900003, 9103);
+        jdbcTemplate.update("insert into reservation (id, client_full_name, room_number) values (900004, 'Undated Client', 9104)");
+
+        reservationDatesMigration.migrate();
+        roomReservationIndexLoader.load();
+
+        assertEquals(Optional.of(9103), roomReservationIndex.findRoomNumber(900003));
+        assertEquals(Optional.empty(), roomReservationIndex.findRoomNumber(900004));
+        assertEquals(List.of(900003), reservationService.searchReservations(ReservationSearchDTO.builder()
+                .client("Client")
+                .match(ReservationSearchDTO.Match.CONTAINS)
+                .build(), 900000, 10).stream().map(ReservationResponseDTO::getId).toList());
+
+        reservationService.deleteReservation(900004);
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.getReservation(900004));
+    }
+
+    //a reservation saved by the first version: no dates in the reservation table, one row per night in reservation_dates
+    private void insertLegacyReservation(int id, int roomNumber) {
+        jdbcTemplate.update("insert into reservation (id, client_full_name, room_number) values (?, 'Legacy Client', ?)",
+                id, roomNumber);
+        for (int night = 0; night < 3; night++) {
+            jdbcTemplate.update("insert into reservation_dates (reservation_id, reservation_date) values (?, ?)",
+                    id, startDate.plusDays(night));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationEventDTO;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.response.ReservationResponseDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.service.events.ReservationEvents;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservationEventsTest {
+
+    private ReservationEvents reservationEvents;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    //id of the last event before each test
+    private long id;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservationEvents = new ReservationEvents(hotelProperties(), meterRegistry);
+        id = reservationEvents.getLastEventId();
+    }
+
+    @Test
+    public void shouldOnlySendNewEventsWithoutLastEventId() {
+        reservationEvents.deleted(1);
+
+        StepVerifier.create(reservationEvents.subscribe(null))
+                .then(() -> reservationEvents.created(ReservationResponseDTOMother.complete().id(2).build()))
+                .expectNextMatches(event -> event.getId() == id + 2
+                        && event.getType() == ReservationEventDTO.Type.CREATED
+                        && event.getReservationId() == 2)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void shouldResumeAfterTheLastEventId() {
+        reservationEvents.deleted(1);
+        reservationEvents.deleted(2);
+        reservationEvents.updated(ReservationResponseDTOMother.complete().id(3).build());
+
+        StepVerifier.create(reservationEvents.subscribe(id + 1))
+                .expectNextMatches(event -> event.getId() == id + 2 && event.getType() == ReservationEventDTO.Type.DELETED)
+                .expectNextMatches(event -> event.getId() == id + 3 && event.getType() == ReservationEventDTO.Type.UPDATED)
+                .then(() -> reservationEvents.deleted(4))
+                .expectNextMatches(event -> event.getId() == id + 4)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void shouldResumeFromTheFirstEvent() {
+        StepVerifier.create(reservationEvents.subscribe(id))
+                .then(() -> reservationEvents.deleted(1))
+                .expectNextMatches(event -> event.getId() == id + 1 && event.getType() == ReservationEventDTO.Type.DELETED)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void shouldAskToReloadWhenTheEventsAfterTheLastEventIdAreNotKept() {
+        for (int reservationId = 1; reservationId <= 5; reservationId++) {
+            reservationEvents.deleted(reservationId);
+        }
+
+        StepVerifier.create(reservationEvents.subscribe(id + 1))
+                .expectNextMatches(event -> event.getId() == id + 5 && event.getType() == ReservationEventDTO.Type.RELOAD)
+                .then(() -> reservationEvents.deleted(6))
+                .expectNextMatches(event -> event.getId() == id + 6 && event.getType() == ReservationEventDTO.Type.DELETED)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void shouldAskToReloadWithAnIdOfThePreviousStart() throws Exception {
+        for (int reservationId = 1; reservationId <= 2000; reservationId++) {
+            reservationEvents.deleted(reservationId);
+        }
+        long lastEventIdBeforeRestart = reservationEvents.getLastEventId();
+        Thread.sleep(5);
+
+        ReservationEvents restarted = new ReservationEvents(hotelProperties(), meterRegistry);
+
+        assertTrue(restarted.getLastEventId() > lastEventIdBeforeRestart);
+        StepVerifier.create(restarted.subscribe(lastEventIdBeforeRestart))
+                .expectNextMatches(event -> event.getId() == restarted.getLastEventId()
+                        && event.getType() == ReservationEventDTO.Type.RELOAD)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void shouldAskToReloadWithAnIdThatWasNeverSent() {
+        reservationEvents.deleted(1);
+
+        StepVerifier.create(reservationEvents.subscribe(id + 2))
+                .expectNextMatches(event -> event.getType() == ReservationEventDTO.Type.RELOAD)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void shouldCompleteASubscriberThatFallsBehindTheBuffer() {
+        StepVerifier.create(reservationEvents.subscribe(null), 0)
+                .then(() -> {
+                    for (int reservationId = 1; reservationId <= 3; reservationId++) {
+                        reservationEvents.deleted(reservationId);
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextMatches(event -> event.getId() == id + 1)
+                .expectNextMatches(event -> event.getId() == id + 2)
+                .verifyComplete();
+        assertEquals(1, meterRegistry.get("reservation.events.overflows").counter().count());
+
+        StepVerifier.create(reservationEvents.subscribe(id + 2))
+                .expectNextMatches(event -> event.getId() == id + 3)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private HotelProperties hotelProperties() {
+        HotelProperties hotelProperties = new HotelProperties();
+        hotelProperties.getEvents().setHistory(3);
+        hotelProperties.getEvents().setBuffer(2);
+        return hotelProperties;
+    }
+}
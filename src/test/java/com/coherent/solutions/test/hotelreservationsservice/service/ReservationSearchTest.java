@@ -0,0 +1,120 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.repository.migration.ClientNameKeyMigration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:searched-reservations;DB_CLOSE_DELAY=-1"
+})
+public class ReservationSearchTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ClientNameKeyMigration clientNameKeyMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void shouldFindReservationsByTheStartOfTheNameIgnoringCaseAndAccents() {
+        ReservationResponseDTO first = reservationService.saveReservation(request("José  Pérez-Prado", 6001).build());
+        ReservationResponseDTO second = reservationService.saveReservation(request("JOSE PEREZ", 6002).build());
+        reservationService.saveReservation(request("Josefina Perez", 6003).build());
+        reservationService.saveReservation(request("Maria Jose Perez", 6004).build());
+
+        List<ReservationResponseDTO> firstPage = reservationService.searchReservations(search("jose perez", ReservationSearchDTO.Match.PREFIX).build(), 0, 1);
+        List<ReservationResponseDTO> secondPage = reservationService.searchReservations(search("jose perez", ReservationSearchDTO.Match.PREFIX).build(), first.getId(), 10);
+        List<ReservationResponseDTO> inRoom = reservationService.searchReservations(search("JOSÉ PÉ", ReservationSearchDTO.Match.PREFIX)
+                .roomNumber(6002).from(LocalDate.now()).to(LocalDate.now().plusDays(11)).build(), 0, 10);
+
+        assertEquals(List.of(first.getId()), ids(firstPage));
+        assertEquals(List.of(second.getId()), ids(secondPage));
+        assertEquals(List.of(second.getId()), ids(inRoom));
+    }
+
+    @Test
+    public void shouldNotTreatLikeWildcardsAsWildcards() {
+        reservationService.saveReservation(request("Ana Lopez", 6011).build());
+        ReservationResponseDTO underscored = reservationService.saveReservation(request("an_a lopez", 6012).build());
+
+        List<ReservationResponseDTO> found = reservationService.searchReservations(search("an_", ReservationSearchDTO.Match.PREFIX).build(), 0, 10);
+
+        assertEquals(List.of(underscored.getId()), ids(found));
+    }
+
+    @Test
+    public void shouldFindReservationsByAnyPartOfTheNameAndDates() {
+        LocalDate startDate = LocalDate.now().plusDays(20);
+        ReservationResponseDTO early = reservationService.saveReservation(request("Lucía Fernández", 6021)
+                .startDate(startDate).endDate(startDate.plusDays(2)).build());
+        ReservationResponseDTO late = reservationService.saveReservation(request("Pedro Fernandez", 6022)
+                .startDate(startDate.plusDays(10)).endDate(startDate.plusDays(12)).build());
+        reservationService.saveReservation(request("Fer Nandez", 6023).build());
+
+        List<ReservationResponseDTO> all = reservationService.searchReservations(search("ERNÁNDEZ", ReservationSearchDTO.Match.CONTAINS).build(), 0, 10);
+        List<ReservationResponseDTO> inDates = reservationService.searchReservations(search("ernandez", ReservationSearchDTO.Match.CONTAINS)
+                .from(startDate.plusDays(5)).to(startDate.plusDays(11)).build(), 0, 10);
+
+        assertEquals(List.of(early.getId(), late.getId()), ids(all));
+        assertEquals(List.of(late.getId()), ids(inDates));
+    }
+
+    @Test
+    public void shouldFindReservationsByTheirCurrentName() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request("Carmen Ortiz", 6031).build());
+        reservationService.updateReservation(saved.getId(), request("Carmen Ruiz", 6031).build(), null);
+
+        assertTrue(reservationService.searchReservations(search("ortiz", ReservationSearchDTO.Match.CONTAINS).build(), 0, 10).isEmpty());
+        assertTrue(reservationService.searchReservations(search("carmen o", ReservationSearchDTO.Match.PREFIX).build(), 0, 10).isEmpty());
+        assertEquals(List.of(saved.getId()), ids(reservationService.searchReservations(search("ruiz", ReservationSearchDTO.Match.CONTAINS).build(), 0, 10)));
+        assertEquals(List.of(saved.getId()), ids(reservationService.searchReservations(search("carmen r", ReservationSearchDTO.Match.PREFIX).build(), 0, 10)));
+
+        reservationService.deleteReservation(saved.getId());
+
+        assertTrue(reservationService.searchReservations(search("ruiz", ReservationSearchDTO.Match.CONTAINS).build(), 0, 10).isEmpty());
+    }
+
+    @Test
+    public void shouldFillTheNameKeyOfOlderReservations() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request("Íñigo Montoya", 6041).build());
+        jdbcTemplate.update("update reservation set client_name_key = null where id = ?", saved.getId());
+
+        clientNameKeyMigration.migrate();
+
+        assertEquals(List.of(saved.getId()), ids(reservationService.searchReservations(search("inigo m", ReservationSearchDTO.Match.PREFIX).build(), 0, 10)));
+    }
+
+    private ReservationRequestDTO.ReservationRequestDTOBuilder request(String clientFullName, int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        return ReservationRequestDTOMother.complete()
+                .clientFullName(clientFullName)
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2));
+    }
+
+    private ReservationSearchDTO.ReservationSearchDTOBuilder search(String client, ReservationSearchDTO.Match match) {
+        return ReservationSearchDTO.builder()
+                .client(client)
+                .match(match);
+    }
+
+    private List<Integer> ids(List<ReservationResponseDTO> reservations) {
+        return reservations.stream().map(ReservationResponseDTO::getId).toList();
+    }
+}
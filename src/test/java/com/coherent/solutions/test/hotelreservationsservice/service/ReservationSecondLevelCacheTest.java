@@ -0,0 +1,130 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.SecondLevelCacheConfig;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.repository.migration.ClientNameKeyMigration;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;DB_CLOSE_DELAY=-1"
+})
+public class ReservationSecondLevelCacheTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ClientNameKeyMigration clientNameKeyMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void shouldReadASavedReservationWithoutGoingToTheDatabase() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(9001).build());
+
+        statistics.clear();
+        reservationService.getReservation(saved.getId());
+        reservationService.getReservation(saved.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.RESERVATION_REGION).getHitCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", SecondLevelCacheConfig.RESERVATION_REGION).tag("result", "hit")
+                .functionCounter().count() >= 2);
+    }
+
+    @Test
+    public void shouldRunTheRoomQueriesOnceUntilAReservationIsWritten() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(9002).build());
+
+        statistics.clear();
+        reservationService.getRoomReservations(9002);
+        reservationService.getRoomReservations(9002);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(SecondLevelCacheConfig.RESERVATION_QUERIES_REGION).getHitCount());
+
+        reservationService.updateReservation(saved.getId(), request(9003).build(), null);
+
+        assertTrue(reservationService.getRoomReservations(9002).isEmpty());
+        assertEquals(saved.getId(), reservationService.getRoomReservations(9003).get(0).getId());
+        assertEquals(9003, reservationService.getReservation(saved.getId()).getRoomNumber());
+    }
+
+    @Test
+    public void shouldKeepTheOtherCachedReservationsOnDelete() {
+        ReservationResponseDTO kept = reservationService.saveReservation(request(9004).build());
+        ReservationResponseDTO deleted = reservationService.saveReservation(request(9005).build());
+        reservationService.getRoomReservations(9005);
+
+        statistics.clear();
+        reservationService.deleteReservation(deleted.getId());
+
+        //delete the reservation, insert its change and at most one sequence call for the change, nothing is read
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.getReservation(deleted.getId()));
+        assertTrue(reservationService.getRoomReservations(9005).isEmpty());
+
+        statistics.clear();
+        reservationService.getReservation(kept.getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldNotServeCachedReservationsChangedByAMigration() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(9006).build());
+        reservationService.getReservation(saved.getId());
+        jdbcTemplate.update("update reservation set client_full_name = 'Renamed Client', client_name_key = null where id = ?",
+                saved.getId());
+
+        clientNameKeyMigration.migrate();
+
+        assertEquals("Renamed Client", reservationService.getReservation(saved.getId()).getClientFullName());
+        assertTrue(entityManagerFactory.getCache().contains(Reservation.class, saved.getId()));
+    }
+
+    private ReservationRequestDTO.ReservationRequestDTOBuilder request(int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        return ReservationRequestDTOMother.complete()
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2));
+    }
+}
@@ -0,0 +1,167 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.cache.type=caffeine",
+        "spring.datasource.url=jdbc:h2:mem:cached-reservations;DB_CLOSE_DELAY=-1"
+})
+public class ReservationServiceCacheTest {
+
+    private static final int READERS = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void shouldReadAReservationFromTheDatabaseOnlyOnce() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(4001).build());
+        entityManagerFactory.getCache().evictAll();
+
+        statistics.clear();
+        reservationService.getReservation(saved.getId());
+        reservationService.getReservation(saved.getId());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "reservation").tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    @Test
+    public void shouldNotReturnStaleReservationsAfterAnUpdate() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(4002).build());
+        reservationService.getReservation(saved.getId());
+        reservationService.getRoomReservations(4002);
+        reservationService.getRoomReservations(4003);
+        reservationService.getReservations();
+
+        ReservationRequestDTO update = request(4003).clientFullName("moved to another room").build();
+        reservationService.updateReservation(saved.getId(), update, null);
+
+        assertEquals("moved to another room", reservationService.getReservation(saved.getId()).getClientFullName());
+        assertTrue(reservationService.getRoomReservations(4002).isEmpty());
+        assertEquals(saved.getId(), reservationService.getRoomReservations(4003).get(0).getId());
+        assertTrue(reservationService.getReservations().stream()
+                .anyMatch(reservation -> reservation.getId() == saved.getId()
+                        && reservation.getRoomNumber() == 4003));
+    }
+
+    @Test
+    public void shouldNotReturnStaleReservationsAfterASaveOrADelete() {
+        ReservationResponseDTO first = reservationService.saveReservation(request(4004).build());
+        List<ReservationResponseDTO> page = reservationService.getReservations(first.getId() - 1, 10);
+        assertEquals(1, reservationService.getRoomReservations(4004).size());
+
+        ReservationResponseDTO second = reservationService.saveReservation(request(4004)
+                .startDate(LocalDate.now().plusDays(30))
+                .endDate(LocalDate.now().plusDays(31))
+                .build());
+
+        assertEquals(page.size() + 1, reservationService.getReservations(first.getId() - 1, 10).size());
+        assertEquals(2, reservationService.getRoomReservations(4004).size());
+
+        reservationService.deleteReservation(second.getId());
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.getReservation(second.getId()));
+        assertEquals(1, reservationService.getRoomReservations(4004).size());
+        assertEquals(page.size(), reservationService.getReservations(first.getId() - 1, 10).size());
+    }
+
+    @Test
+    public void shouldReadTheWholeListFromTheDatabaseEveryTime() {
+        reservationService.saveReservation(request(4006).build());
+
+        statistics.clear();
+        reservationService.getReservations();
+        reservationService.getReservations();
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldReturnTheLastUpdateWhileOtherThreadsKeepReading() throws Exception {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(4005).build());
+        ReservationRequestDTO update = request(4005).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(READERS);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < READERS; reader++) {
+                readers.add(executor.submit(() -> {
+                    started.countDown();
+                    while (writing.get()) {
+                        reservationService.getReservation(saved.getId());
+                        reservationService.getRoomReservations(4005);
+                        reservationService.getReservations(saved.getId() - 1, 1);
+                    }
+                }));
+            }
+            started.await();
+
+            for (int version = 0; version < 50; version++) {
+                String clientFullName = "client " + version;
+                update.setClientFullName(clientFullName);
+                reservationService.updateReservation(saved.getId(), update, null);
+
+                assertEquals(clientFullName, reservationService.getReservation(saved.getId()).getClientFullName());
+                assertEquals(clientFullName, reservationService.getRoomReservations(4005).get(0).getClientFullName());
+                assertEquals(clientFullName, reservationService.getReservations(saved.getId() - 1, 1).get(0).getClientFullName());
+            }
+
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    private ReservationRequestDTO.ReservationRequestDTOBuilder request(int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        return ReservationRequestDTOMother.complete()
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2));
+    }
+}
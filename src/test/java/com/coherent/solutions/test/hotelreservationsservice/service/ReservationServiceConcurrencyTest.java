@@ -0,0 +1,345 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ConflictException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.PreconditionFailedException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ReservationServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_ROOM = 16;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomReservationIndex roomReservationIndex;
+
+    @Autowired
+    private RoomOccupancyBitmap roomOccupancyBitmap;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void shouldBookEachRoomOnlyOnceWhenOverlappingRequestsRace() throws Exception {
+        /*
+        every request of a room contains the third night, so only one of them can be booked
+        requestSDates  Start |-------------|-------------|-------------| End
+        requestSDates                Start |-------------|-------------|-------------| End
+        requestSDates                              Start |-------------|-------------|-------------| End
+        */
+        List<Integer> roomNumbers = List.of(1001, 1002, 1003, 1004, 1005, 1006, 1007, 1008);
+        LocalDate startDate = LocalDate.now().plusDays(10);
+
+        List<ReservationRequestDTO> requests = new ArrayList<>();
+        for (int request = 0; request < REQUESTS_PER_ROOM; request++) {
+            for (int roomNumber : roomNumbers) {
+                LocalDate requestStartDate = startDate.plusDays(request % 3);
+                requests.add(ReservationRequestDTOMother.complete()
+                        .roomNumber(roomNumber)
+                        .startDate(requestStartDate)
+                        .endDate(requestStartDate.plusDays(3))
+                        .build());
+            }
+        }
+
+        AtomicInteger rejected = new AtomicInteger();
+        int booked = bookConcurrently(requests, rejected);
+
+        assertEquals(roomNumbers.size(), booked);
+        assertEquals(requests.size() - roomNumbers.size(), rejected.get());
+
+        for (int roomNumber : roomNumbers) {
+            assertEquals(1, reservationRepository.findByRoomNumberOrderByStartDateAsc(roomNumber).size());
+        }
+    }
+
+    @Test
+    public void shouldBookEveryRoomWhenRequestsForDifferentRoomsRunInParallel() throws Exception {
+        LocalDate startDate = LocalDate.now().plusDays(10);
+
+        List<ReservationRequestDTO> requests = new ArrayList<>();
+        for (int roomNumber = 2001; roomNumber <= 2256; roomNumber++) {
+            requests.add(ReservationRequestDTOMother.complete()
+                    .roomNumber(roomNumber)
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(2))
+                    .build());
+        }
+
+        AtomicInteger rejected = new AtomicInteger();
+        int booked = bookConcurrently(requests, rejected);
+
+        assertEquals(requests.size(), booked);
+        assertEquals(0, rejected.get());
+    }
+
+    @Test
+    public void shouldBookOnlyOneOfTwoGroupsSharingRoomsWithoutADeadlock() throws Exception {
+        /*
+        both groups want rooms 7001 to 7040 for the same nights, listed in opposite orders: one of them is booked
+        whole and the other one is rejected whole, none of its free rooms (7041 and 7042) is booked
+        */
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        List<Integer> sharedRooms = IntStream.rangeClosed(7001, 7040).boxed().collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int group = 0; group < 2; group++) {
+                List<Integer> roomNumbers = new ArrayList<>(sharedRooms);
+                if (group == 1) {
+                    Collections.reverse(roomNumbers);
+                }
+                roomNumbers.add(7041 + group);
+                List<ReservationRequestDTO> requests = roomNumbers.stream()
+                        .map(roomNumber -> ReservationRequestDTOMother.complete()
+                                .roomNumber(roomNumber)
+                                .startDate(startDate)
+                                .endDate(startDate.plusDays(2))
+                                .build())
+                        .collect(Collectors.toList());
+
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        reservationService.saveReservationGroup(requests);
+                        return true;
+                    } catch (BadRequestException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    booked++;
+                }
+            }
+            assertEquals(1, booked);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int roomNumber : sharedRooms) {
+            assertEquals(1, reservationRepository.findByRoomNumberOrderByStartDateAsc(roomNumber).size());
+        }
+        assertEquals(1, reservationRepository.findByRoomNumberOrderByStartDateAsc(7041).size()
+                + reservationRepository.findByRoomNumberOrderByStartDateAsc(7042).size());
+    }
+
+    @Test
+    public void shouldTimeTheOverlapCheckOfBookingsTheBitmapAnswers() {
+        Timer overlapCheck = meterRegistry.get("reservation.overlap.check").timer();
+        long checks = overlapCheck.count();
+        LocalDate startDate = LocalDate.now().plusDays(10);
+
+        reservationService.saveReservation(ReservationRequestDTOMother.complete()
+                .roomNumber(7201)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2))
+                .build());
+
+        assertEquals(checks + 1, overlapCheck.count());
+    }
+
+    @Test
+    public void shouldApplyOnlyOneOfTwoUpdatesMadeFromTheSameVersion() throws Exception {
+        /*
+        two agents edit the same reservation at once, moving it to different rooms, so the room locks do not
+        serialize them: the second one must fail, with a 412 if it loaded the new version or a 409 if it did not
+        */
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        ReservationResponseDTO reservation = reservationService.saveReservation(ReservationRequestDTOMother.complete()
+                .roomNumber(1101)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2))
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                long version = reservationService.getReservation(reservation.getId()).getVersion();
+                CountDownLatch start = new CountDownLatch(1);
+
+                List<Future<Boolean>> results = new ArrayList<>();
+                for (int roomNumber : List.of(1102 + 2 * round, 1103 + 2 * round)) {
+                    ReservationRequestDTO update = ReservationRequestDTOMother.complete()
+                            .roomNumber(roomNumber)
+                            .startDate(startDate)
+                            .endDate(startDate.plusDays(2))
+                            .build();
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        try {
+                            reservationService.updateReservation(reservation.getId(), update, version);
+                            return true;
+                        } catch (ConflictException | PreconditionFailedException e) {
+                            return false;
+                        }
+                    }));
+                }
+                start.countDown();
+
+                int updated = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get()) {
+                        updated++;
+                    }
+                }
+                assertEquals(1, updated);
+                assertEquals(version + 1, reservationService.getReservation(reservation.getId()).getVersion());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldKeepTheIndexAndBitmapInLineWithTheDatabaseWhenUpdatesAndDeletesRace() throws Exception {
+        /*
+        every round a reservation is moved to another room while it is deleted (even rounds) or moved to a third room
+        (odd rounds). whichever runs first, the index and the bitmap must end up with what the database has
+        */
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        LocalDate endDate = startDate.plusDays(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 40; round++) {
+                int roomNumber = 7301 + 3 * round;
+                ReservationResponseDTO reservation = reservationService.saveReservation(ReservationRequestDTOMother.complete()
+                        .roomNumber(roomNumber)
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .build());
+                ReservationRequestDTO update = ReservationRequestDTOMother.complete()
+                        .roomNumber(roomNumber + 1)
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .build();
+                ReservationRequestDTO otherUpdate = ReservationRequestDTOMother.complete()
+                        .roomNumber(roomNumber + 2)
+                        .startDate(startDate)
+                        .endDate(endDate)
+                        .build();
+                boolean delete = round % 2 == 0;
+                CountDownLatch start = new CountDownLatch(1);
+
+                List<Future<Boolean>> results = new ArrayList<>();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return applied(() -> reservationService.updateReservation(reservation.getId(), update, null));
+                }));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return applied(() -> {
+                        if (delete) {
+                            reservationService.deleteReservation(reservation.getId());
+                        } else {
+                            reservationService.updateReservation(reservation.getId(), otherUpdate, null);
+                        }
+                    });
+                }));
+                start.countDown();
+                for (Future<Boolean> result : results) {
+                    result.get(30, TimeUnit.SECONDS);
+                }
+
+                Optional<Integer> savedRoomNumber = reservationRepository.findById(reservation.getId())
+                        .map(Reservation::getRoomNumber);
+                assertEquals(savedRoomNumber, roomReservationIndex.findRoomNumber(reservation.getId()));
+                for (int room = roomNumber; room <= roomNumber + 2; room++) {
+                    boolean booked = savedRoomNumber.isPresent() && savedRoomNumber.get() == room;
+                    assertEquals(booked, roomReservationIndex.isBooked(room, startDate, endDate));
+                    assertEquals(booked, roomOccupancyBitmap.isBooked(room, startDate, endDate));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //an update of a reservation deleted first is not found, one loading a version the other changed is a conflict
+    private boolean applied(Runnable change) {
+        try {
+            change.run();
+            return true;
+        } catch (ResourceNotFoundException | ConflictException e) {
+            return false;
+        }
+    }
+
+    private int bookConcurrently(List<ReservationRequestDTO> requests, AtomicInteger rejected) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Callable<Boolean>> bookings = requests.stream()
+                    .map(request -> (Callable<Boolean>) () -> {
+                        start.await();
+                        try {
+                            reservationService.saveReservation(request);
+                            return true;
+                        } catch (BadRequestException e) {
+                            rejected.incrementAndGet();
+                            return false;
+                        }
+                    })
+                    .collect(Collectors.toList());
+
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (Callable<Boolean> booking : bookings) {
+                results.add(executor.submit(booking));
+            }
+            start.countDown();
+
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    booked++;
+                }
+            }
+            return booked;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.model.ReservationMother;
+import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ReservationServiceQueryCountTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void shouldReadAllReservationsWithOneStatementWhateverTheirNumber() {
+        saveReservations(10);
+        long statementsFor10 = countStatements(() -> reservationService.getReservations());
+
+        saveReservations(200);
+        long statementsFor210 = countStatements(() -> reservationService.getReservations());
+
+        assertEquals(1, statementsFor10);
+        assertEquals(statementsFor10, statementsFor210);
+    }
+
+    @Test
+    public void shouldReadAReservationAndItsDatesWithOneStatement() {
+        Reservation reservation = reservationRepository.save(ReservationMother.complete().id(0).build());
+        //read from the database, not from the second level cache the save put it in
+        entityManagerFactory.getCache().evict(Reservation.class);
+
+        long statements = countStatements(() -> reservationService.getReservation(reservation.getId()));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    public void shouldReadAPageOfReservationsWithOneStatementWhateverItsSize() {
+        saveReservations(200);
+
+        long statementsFor10 = countStatements(() -> reservationService.getReservations(0, 10));
+        long statementsFor200 = countStatements(() -> reservationService.getReservations(0, 200));
+
+        assertEquals(1, statementsFor10);
+        assertEquals(statementsFor10, statementsFor200);
+    }
+
+    @Test
+    public void shouldStreamReservationsWithOneStatementWhateverTheirNumber() {
+        saveReservations(10);
+        long statementsFor10 = countStatements(() -> reservationService.streamReservations(reservation -> { }));
+
+        saveReservations(200);
+        long statementsFor210 = countStatements(() -> reservationService.streamReservations(reservation -> { }));
+
+        assertEquals(1, statementsFor10);
+        assertEquals(statementsFor10, statementsFor210);
+    }
+
+    @Test
+    public void shouldInsertABatchOfReservationsWithJdbcBatches() {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        List<ReservationRequestDTO> requests = new ArrayList<>();
+        for (int roomNumber = 3001; roomNumber <= 3100; roomNumber++) {
+            requests.add(ReservationRequestDTOMother.complete()
+                    .roomNumber(roomNumber)
+                    .startDate(startDate)
+                    .endDate(startDate.plusDays(1))
+                    .build());
+        }
+
+        statistics.clear();
+        List<BatchReservationResultDTO> results = reservationService.saveReservations(requests);
+
+        assertEquals(100, results.stream().filter(result -> result.getStatus() == BatchReservationResultDTO.Status.CREATED).count());
+        //one select for the room locks, at most 5 sequence calls and one batched insert statement for the room locks,
+        //one for the reservations and one for their changes, instead of one statement per row
+        assertEquals(300, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 9);
+    }
+
+    @Test
+    public void shouldUpdateAReservationWithOneSelectOneRoomLockOneUpdateAndItsChange() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(3201).build());
+
+        long statements = countStatements(() -> reservationService.updateReservation(saved.getId(), request(3201).build(), null));
+
+        //select the reservation, select the room lock for update, update the reservation, insert its change
+        //and at most one sequence call for the change
+        assertTrue(statements <= 5);
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    public void shouldDeleteAReservationWithTwoStatementsAndItsChange() {
+        ReservationResponseDTO saved = reservationService.saveReservation(request(3202).build());
+        //not in the second level cache, where it is usually found and not selected, see ReservationSecondLevelCacheTest
+        entityManagerFactory.getCache().evict(Reservation.class);
+
+        long statements = countStatements(() -> reservationService.deleteReservation(saved.getId()));
+
+        //select and delete the reservation, insert its change and at most one sequence call for the change
+        assertTrue(statements <= 4);
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getEntityDeleteCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertTrue(reservationRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    public void shouldFailToDeleteAMissingReservationWithOneStatement() {
+        statistics.clear();
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.deleteReservation(Integer.MAX_VALUE));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private ReservationRequestDTO.ReservationRequestDTOBuilder request(int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        return ReservationRequestDTOMother.complete()
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2));
+    }
+
+    private void saveReservations(int count) {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            reservations.add(ReservationMother.complete().id(0).build());
+        }
+        reservationRepository.saveAll(reservations);
+    }
+
+    private long countStatements(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
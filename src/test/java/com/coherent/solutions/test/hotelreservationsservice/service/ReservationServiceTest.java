@@ -1,31 +1,72 @@
 package com.coherent.solutions.test.hotelreservationsservice.service;
 
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
 import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationSearchDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.BatchReservationResultDTO;
 import com.coherent.solutions.test.hotelreservationsservice.dto.response.ReservationResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
 import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.ConflictException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.HoldNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.PreconditionFailedException;
 import com.coherent.solutions.test.hotelreservationsservice.exceptions.ResourceNotFoundException;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.RoomBeingBookedException;
+import com.coherent.solutions.test.hotelreservationsservice.mappers.ReservationMapper;
 import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomLock;
 import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
 import com.coherent.solutions.test.hotelreservationsservice.objectmother.model.ReservationMother;
 import com.coherent.solutions.test.hotelreservationsservice.objectmother.utils.DatesMother;
 import com.coherent.solutions.test.hotelreservationsservice.repository.ReservationRepository;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomHoldRepository;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomLockRepository;
+import com.coherent.solutions.test.hotelreservationsservice.service.cache.ReservationCache;
+import com.coherent.solutions.test.hotelreservationsservice.service.changelog.ReservationChangeLog;
+import com.coherent.solutions.test.hotelreservationsservice.service.events.ReservationEvents;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHolds;
 import com.coherent.solutions.test.hotelreservationsservice.service.impl.ReservationServiceImpl;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.ClientNameIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomReservationIndex;
+import com.coherent.solutions.test.hotelreservationsservice.service.lock.RoomLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.AdditionalAnswers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,15 +78,57 @@ public class ReservationServiceTest {
 
     @Mock
     private ReservationRepository reservationRepository;
+
+    @Mock
+    private RoomLockRepository roomLockRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ReservationCache reservationCache;
+
+    @Mock
+    private ReservationEvents reservationEvents;
+
+    @Mock
+    private ReservationChangeLog reservationChangeLog;
+
+    @Spy
+    private RoomReservationIndex roomReservationIndex = new RoomReservationIndex();
+
+    @Spy
+    private ClientNameIndex clientNameIndex = new ClientNameIndex();
+
+    //covers nothing unless stubbed, checks go to the index
+    @Mock
+    private RoomOccupancyBitmap roomOccupancyBitmap;
+
+    @Spy
+    private RoomLocks roomLocks = new RoomLocks();
+
+    @Spy
+    private RoomHolds roomHolds = new RoomHolds();
+
+    @Mock
+    private RoomHoldRepository roomHoldRepository;
+
+    @Spy
+    private HotelProperties hotelProperties = new HotelProperties();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+
     @Test
     public void shouldFailWhenSavingAReservationAndTheRoomIsAlreadyBookedForTheGivenDates() {
 
         ReservationRequestDTO request = ReservationRequestDTOMother.complete()
                 .build();
 
-        when(reservationRepository.findByReservationAndByOverlappingDates(any(LocalDate.class), any(LocalDate.class), anyInt()))
-                .thenReturn(
-                        Arrays.asList(ReservationMother.complete().build()));
+        roomReservationIndex.put(ReservationMother.fromRequest(request).build());
 
         Exception exception = assertThrows(BadRequestException.class, () -> {
             reservationServiceImpl.saveReservation(request);
@@ -53,7 +136,125 @@ public class ReservationServiceTest {
 
         assertEquals("room already booked for given dates", exception.getMessage());
 
-        verify(reservationRepository).findByReservationAndByOverlappingDates(any(LocalDate.class), any(LocalDate.class), anyInt());
+        verify(roomReservationIndex).findOverlapping(request.getRoomNumber(), request.getStartDate(), request.getEndDate());
+    }
+
+    @Test
+    public void shouldCheckTheOccupancyBitmapWhenItCoversTheRoomAndDates() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+        when(roomOccupancyBitmap.covers(request.getRoomNumber(), request.getStartDate(), request.getEndDate())).thenReturn(true);
+        when(roomOccupancyBitmap.isBooked(request.getRoomNumber(), request.getStartDate(), request.getEndDate(), null)).thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> reservationServiceImpl.saveReservation(request));
+
+        verify(roomReservationIndex, never()).findOverlapping(anyInt(), any(), any());
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    public void shouldFailWithAConflictWhenAnotherProcessInsertsTheRoomLockFirst() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+        when(roomLockRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("duplicate room_lock"));
+
+        assertThrows(RoomBeingBookedException.class, () -> reservationServiceImpl.saveReservation(request));
+
+        verify(reservationRepository, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    public void shouldFailWhenSavingAReservationAndTheRoomIsHeldByAnotherGuest() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+        roomHolds.put(hold(request).build());
+
+        Exception exception = assertThrows(BadRequestException.class, () -> reservationServiceImpl.saveReservation(request));
+
+        assertEquals("room already booked for given dates", exception.getMessage());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    public void shouldSaveAReservationFromItsHoldAndReleaseIt() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+        RoomHold hold = hold(request).build();
+        roomHolds.put(hold);
+        request.setHoldId(hold.getId());
+
+        when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
+
+        reservationServiceImpl.saveReservation(request);
+
+        verify(roomHoldRepository).deleteHoldsById(List.of(hold.getId()));
+        assertFalse(roomHolds.isHeld(request.getRoomNumber(), request.getStartDate(), request.getEndDate(), null));
+    }
+
+    @Test
+    public void shouldHoldARoomForTheConfiguredTime() {
+        ReservationRequestDTO booked = ReservationRequestDTOMother.complete()
+                .build();
+        roomReservationIndex.put(ReservationMother.fromRequest(booked).build());
+        RoomHoldRequestDTO holdRequest = RoomHoldRequestDTO.builder()
+                .roomNumber(booked.getRoomNumber())
+                .startDate(booked.getEndDate())
+                .endDate(booked.getEndDate().plusDays(2))
+                .build();
+
+        when(roomHoldRepository.save(any(RoomHold.class))).then(AdditionalAnswers.returnsFirstArg());
+
+        RoomHoldResponseDTO hold = reservationServiceImpl.holdRoom(holdRequest);
+
+        assertNotNull(hold.getId());
+        assertTrue(hold.getExpiresAt().isAfter(Instant.now().plus(hotelProperties.getHolds().getTtl()).minusSeconds(60)));
+        assertTrue(roomHolds.isHeld(booked.getRoomNumber(), holdRequest.getStartDate(), holdRequest.getEndDate(), null));
+        assertThrows(BadRequestException.class, () -> reservationServiceImpl.holdRoom(holdRequest));
+
+        holdRequest.setStartDate(booked.getStartDate());
+        assertThrows(BadRequestException.class, () -> reservationServiceImpl.holdRoom(holdRequest));
+    }
+
+    @Test
+    public void shouldFailWhenReleasingANonExistentHold() {
+        UUID holdId = UUID.randomUUID();
+        when(roomHoldRepository.deleteHoldsById(List.of(holdId))).thenReturn(0);
+
+        Exception exception = assertThrows(HoldNotFoundException.class, () -> reservationServiceImpl.releaseHold(holdId));
+
+        assertEquals("hold not found with id: " + holdId, exception.getMessage());
+    }
+
+    @Test
+    public void shouldSearchByTheStartOfTheNormalizedNameWithTheWildcardsEscaped() {
+        ReservationSearchDTO search = ReservationSearchDTO.builder()
+                .client(" García_%")
+                .match(ReservationSearchDTO.Match.PREFIX)
+                .roomNumber(7)
+                .build();
+        when(reservationRepository.searchByClientNamePattern("garcia\\_\\%%", 7, null, null, 10, Limit.of(5)))
+                .thenReturn(List.of(ReservationMother.complete().build()));
+
+        assertEquals(1, reservationServiceImpl.searchReservations(search, 10, 5).size());
+
+        verify(clientNameIndex, never()).findContaining(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldSearchByAnyPartOfTheNameInTheIndexAndLoadOnlyTheFoundReservations() {
+        Reservation garcia = ReservationMother.complete().id(3).clientFullName("Ana García").build();
+        clientNameIndex.put(garcia);
+        clientNameIndex.put(ReservationMother.complete().id(4).clientFullName("Ana Lopez").build());
+        ReservationSearchDTO search = ReservationSearchDTO.builder()
+                .client("ARCI")
+                .match(ReservationSearchDTO.Match.CONTAINS)
+                .build();
+        when(reservationRepository.findByIdInOrderByIdAsc(List.of(3))).thenReturn(List.of(garcia));
+
+        List<ReservationResponseDTO> found = reservationServiceImpl.searchReservations(search, 0, 5);
+
+        assertEquals(List.of(3), found.stream().map(ReservationResponseDTO::getId).toList());
+        verify(reservationRepository, never()).searchByClientNamePattern(any(), any(), any(), any(), anyInt(), any());
     }
 
     @Test
@@ -61,8 +262,6 @@ public class ReservationServiceTest {
         ReservationRequestDTO request = ReservationRequestDTOMother.complete()
                 .build();
 
-        when(reservationRepository.findByReservationAndByOverlappingDates(any(LocalDate.class), any(LocalDate.class), anyInt()))
-                .thenReturn(Collections.emptyList());
         when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
 
         ReservationResponseDTO response = reservationServiceImpl.saveReservation(request);
@@ -72,8 +271,157 @@ public class ReservationServiceTest {
         assertTrue(response.getReservationDates().contains(request.getStartDate()));
         assertTrue(response.getReservationDates().contains(request.getEndDate()));
 
-        verify(reservationRepository).findByReservationAndByOverlappingDates(any(LocalDate.class), any(LocalDate.class), anyInt());
+        verify(roomReservationIndex).findOverlapping(request.getRoomNumber(), request.getStartDate(), request.getEndDate());
         verify(reservationRepository).save(any(Reservation.class));
+        verify(roomOccupancyBitmap).book(any(Reservation.class));
+        verify(reservationCache).evict(response.getId(), List.of(request.getRoomNumber()));
+        verify(reservationEvents).created(response);
+        verify(reservationChangeLog).created(List.of(ReservationMapper.INSTANCE.reservationRequestDTOToReservation(request)));
+    }
+
+    @Test
+    public void shouldSucceedWhenSavingAReservationStartingTheDayAnotherReservationEnds() {
+        /*
+        bookedReservationDate  Start |-------------|-------------| End
+        requestSDates                                      Start |-------------|-------------| End
+        */
+
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+
+        Reservation bookedReservation = ReservationMother.fromRequest(request)
+                .startDate(request.getStartDate().minusDays(2))
+                .endDate(request.getStartDate())
+                .build();
+
+        roomReservationIndex.put(bookedReservation);
+        when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
+
+        ReservationResponseDTO response = reservationServiceImpl.saveReservation(request);
+
+        assertEquals(request.getRoomNumber(), response.getRoomNumber());
+
+        verify(roomReservationIndex).findOverlapping(request.getRoomNumber(), request.getStartDate(), request.getEndDate());
+        verify(reservationRepository).save(any(Reservation.class));
+    }
+
+    @Test
+    public void shouldSaveABatchReportingConflictsWithBookedRoomsAndWithinTheBatch() {
+        /*
+        bookedReservationDate        Start |-------------|-------------| End
+        request 0                                  Start |-------------|-------------| End      (conflict, booked)
+        request 1      Start |-------------| End                                                  (created)
+        request 2             Start |-------------| End                                           (conflict, request 1)
+        request 3 (other room)       Start |-------------|-------------| End                    (created)
+        */
+        ReservationRequestDTO bookedRequest = ReservationRequestDTOMother.complete().build();
+        int roomNumber = bookedRequest.getRoomNumber();
+        LocalDate bookedStartDate = bookedRequest.getStartDate().plusDays(2);
+
+        roomReservationIndex.put(ReservationMother.fromRequest(bookedRequest)
+                .startDate(bookedStartDate)
+                .endDate(bookedStartDate.plusDays(2))
+                .build());
+
+        List<ReservationRequestDTO> requests = Arrays.asList(
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber)
+                        .startDate(bookedStartDate.plusDays(1)).endDate(bookedStartDate.plusDays(3)).build(),
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber)
+                        .startDate(bookedStartDate.minusDays(2)).endDate(bookedStartDate).build(),
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber)
+                        .startDate(bookedStartDate.minusDays(1)).endDate(bookedStartDate.plusDays(1)).build(),
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber + 1000)
+                        .startDate(bookedStartDate).endDate(bookedStartDate.plusDays(2)).build());
+
+        when(reservationRepository.saveAll(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        List<BatchReservationResultDTO> response = reservationServiceImpl.saveReservations(requests);
+
+        assertEquals(4, response.size());
+        assertEquals(BatchReservationResultDTO.Status.CONFLICT, response.get(0).getStatus());
+        assertEquals(BatchReservationResultDTO.Status.CREATED, response.get(1).getStatus());
+        assertEquals(BatchReservationResultDTO.Status.CONFLICT, response.get(2).getStatus());
+        assertEquals(BatchReservationResultDTO.Status.CREATED, response.get(3).getStatus());
+        assertEquals(Arrays.asList("room already booked for given dates"), response.get(0).getErrors());
+        assertEquals(requests.get(1).getClientFullName(), response.get(1).getReservation().getClientFullName());
+        assertEquals(roomNumber + 1000, response.get(3).getReservation().getRoomNumber());
+        for (int index = 0; index < response.size(); index++) {
+            assertEquals(index, response.get(index).getIndex());
+        }
+
+        verify(reservationRepository).saveAll(any());
+    }
+
+    @Test
+    public void shouldCheckABatchOnceItsRoomsAreLocked() {
+        ReservationRequestDTO booked = ReservationRequestDTOMother.complete().build();
+        ReservationRequestDTO free = ReservationRequestDTOMother.complete().roomNumber(booked.getRoomNumber() + 1000).build();
+        roomReservationIndex.put(ReservationMother.fromRequest(booked).id(7).build());
+        when(reservationRepository.saveAll(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        List<BatchReservationResultDTO> response = reservationServiceImpl.saveReservations(List.of(booked, free));
+
+        assertEquals(BatchReservationResultDTO.Status.CONFLICT, response.get(0).getStatus());
+        assertEquals(BatchReservationResultDTO.Status.CREATED, response.get(1).getStatus());
+        InOrder inOrder = inOrder(roomLockRepository, roomReservationIndex, reservationRepository);
+        inOrder.verify(roomLockRepository).findByRoomNumberInOrderByRoomNumber(any());
+        inOrder.verify(roomReservationIndex).findOverlapping(eq(booked.getRoomNumber()), any(), any());
+        inOrder.verify(reservationRepository).saveAll(any());
+    }
+
+    @Test
+    public void shouldSaveEveryReservationOfAGroupInOneTransaction() {
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete().build();
+        List<ReservationRequestDTO> requests = Arrays.asList(
+                request,
+                ReservationRequestDTOMother.complete().roomNumber(request.getRoomNumber() + 1).build(),
+                ReservationRequestDTOMother.complete().roomNumber(request.getRoomNumber())
+                        .startDate(request.getEndDate()).endDate(request.getEndDate().plusDays(1)).build());
+
+        when(reservationRepository.saveAll(any())).then(AdditionalAnswers.returnsFirstArg());
+
+        List<ReservationResponseDTO> response = reservationServiceImpl.saveReservationGroup(requests);
+
+        assertEquals(3, response.size());
+        assertEquals(request.getRoomNumber() + 1, response.get(1).getRoomNumber());
+        assertEquals(request.getEndDate(), response.get(2).getReservationDates().get(0));
+
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(reservationRepository).saveAll(any());
+        verify(roomLockRepository).findByRoomNumberInOrderByRoomNumber(Set.of(request.getRoomNumber(), request.getRoomNumber() + 1));
+    }
+
+    @Test
+    public void shouldSaveNothingWhenAReservationOfTheGroupConflicts() {
+        /*
+        bookedReservationDate        Start |-------------|-------------| End
+        request 0 (other room)       Start |-------------|-------------| End
+        request 1                                  Start |-------------|-------------| End      (conflict, booked)
+        request 2 (other room)              Start |-------------| End                           (conflict, request 0)
+        */
+        LocalDate bookedStartDate = DatesMother.inTheFuture();
+        ReservationRequestDTO bookedRequest = ReservationRequestDTOMother.complete()
+                .startDate(bookedStartDate)
+                .endDate(bookedStartDate.plusDays(2))
+                .build();
+        int roomNumber = bookedRequest.getRoomNumber();
+        roomReservationIndex.put(ReservationMother.fromRequest(bookedRequest).build());
+
+        List<ReservationRequestDTO> requests = Arrays.asList(
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber + 1)
+                        .startDate(bookedRequest.getStartDate()).endDate(bookedRequest.getEndDate()).build(),
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber)
+                        .startDate(bookedRequest.getStartDate().plusDays(1)).endDate(bookedRequest.getEndDate().plusDays(1)).build(),
+                ReservationRequestDTOMother.complete().roomNumber(roomNumber + 1)
+                        .startDate(bookedRequest.getStartDate()).endDate(bookedRequest.getStartDate().plusDays(1)).build());
+
+        Exception exception = assertThrows(BadRequestException.class, () -> reservationServiceImpl.saveReservationGroup(requests));
+
+        assertEquals("room already booked for given dates, reservations 1, 2 of the group", exception.getMessage());
+
+        verify(reservationRepository, never()).saveAll(any());
+        verify(reservationEvents, never()).created(any());
+        assertTrue(roomReservationIndex.findOverlapping(roomNumber + 1, bookedRequest.getStartDate(), bookedRequest.getEndDate()).isEmpty());
     }
 
     @Test
@@ -82,15 +430,15 @@ public class ReservationServiceTest {
         ReservationRequestDTO request = ReservationRequestDTOMother.complete()
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(false);
+        when(reservationRepository.findById(id)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
-            reservationServiceImpl.updateReservation(id, request);
+            reservationServiceImpl.updateReservation(id, request, null);
         });
 
         assertEquals(String.format("reservation not found with id: %d", id), exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
+        verify(reservationRepository).findById(id);
     }
 
     @Test
@@ -104,16 +452,14 @@ public class ReservationServiceTest {
                 .id(id)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationSaved));
 
         Exception exception = assertThrows(BadRequestException.class, () -> {
-            reservationServiceImpl.updateReservation(id, request);
+            reservationServiceImpl.updateReservation(id, request, null);
         });
 
         assertEquals("reservations in the past, can not be edited", exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
@@ -142,21 +488,20 @@ public class ReservationServiceTest {
                 .build();
 
         Reservation reservationWithSameDatesAsRequest = ReservationMother.fromRequest(request)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .id(id + 1)
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationToUpdate));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(reservationWithSameDatesAsRequest));
+        roomReservationIndex.put(reservationWithSameDatesAsRequest);
 
         Exception exception = assertThrows(BadRequestException.class, () -> {
-            reservationServiceImpl.updateReservation(id, request);
+            reservationServiceImpl.updateReservation(id, request, null);
         });
 
         assertEquals("room already booked for given dates", exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
@@ -185,21 +530,20 @@ public class ReservationServiceTest {
                 .build();
 
         Reservation reservationWithSameDatesAsRequest = ReservationMother.fromRequest(request)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .id(id + 1)
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationToUpdate));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(reservationWithSameDatesAsRequest));
+        roomReservationIndex.put(reservationWithSameDatesAsRequest);
 
         Exception exception = assertThrows(BadRequestException.class, () -> {
-            reservationServiceImpl.updateReservation(id, request);
+            reservationServiceImpl.updateReservation(id, request, null);
         });
 
         assertEquals("room already booked for given dates", exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
@@ -228,21 +572,20 @@ public class ReservationServiceTest {
                 .build();
 
         Reservation reservationWithSameDatesAsRequest = ReservationMother.fromRequest(request)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .id(id + 1)
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationToUpdate));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(reservationWithSameDatesAsRequest));
+        roomReservationIndex.put(reservationWithSameDatesAsRequest);
 
         Exception exception = assertThrows(BadRequestException.class, () -> {
-            reservationServiceImpl.updateReservation(id, request);
+            reservationServiceImpl.updateReservation(id, request, null);
         });
 
         assertEquals("room already booked for given dates", exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
@@ -271,24 +614,98 @@ public class ReservationServiceTest {
                 .build();
 
         Reservation reservationWithSameDatesAsRequest = ReservationMother.fromRequest(request)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .id(id + 1)
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationToUpdate));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(reservationWithSameDatesAsRequest));
+        roomReservationIndex.put(reservationWithSameDatesAsRequest);
 
         Exception exception = assertThrows(BadRequestException.class, () -> {
-            reservationServiceImpl.updateReservation(id, request);
+            reservationServiceImpl.updateReservation(id, request, null);
         });
 
         assertEquals("room already booked for given dates", exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
+    @Test
+    public void shouldFailWhenUpdatingAReservationAndTheVersionIsNotTheExpectedOne() {
+        int id = 123;
+
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+
+        Reservation reservationSaved = ReservationMother.fromRequest(request)
+                .id(id)
+                .version(4L)
+                .build();
+
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationSaved));
+
+        Exception exception = assertThrows(PreconditionFailedException.class, () -> {
+            reservationServiceImpl.updateReservation(id, request, 3L);
+        });
+
+        assertEquals("reservation version is 4, not 3", exception.getMessage());
+        verify(reservationCache, never()).evict(anyInt(), any());
+    }
+
+    @Test
+    public void shouldPassWhenUpdatingAReservationWithTheExpectedVersion() {
+        int id = 123;
+
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+
+        Reservation reservationSaved = ReservationMother.fromRequest(request)
+                .id(id)
+                .version(3L)
+                .build();
+
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservationSaved));
+
+        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request, 3L);
+
+        assertEquals(id, response.getId());
+        assertEquals(3L, response.getVersion());
+    }
+
+    @Test
+    public void shouldFailWithAConflictWhenTheReservationIsUpdatedByAnotherRequest() {
+        int id = 123;
+
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+
+        when(reservationRepository.findById(id)).thenThrow(new ObjectOptimisticLockingFailureException(Reservation.class, id));
+
+        Exception exception = assertThrows(ConflictException.class, () -> {
+            reservationServiceImpl.updateReservation(id, request, null);
+        });
+
+        assertEquals("reservation was modified by another request", exception.getMessage());
+    }
+
+    @Test
+    public void shouldFailWithAConflictWhenTheUpdateFindsAnotherVersion() {
+        int id = 123;
+
+        ReservationRequestDTO request = ReservationRequestDTOMother.complete()
+                .build();
+
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(ReservationMother.fromRequest(request).id(id).build()));
+        Mockito.doThrow(new OptimisticLockException()).when(entityManager).flush();
+
+        assertThrows(ConflictException.class, () -> {
+            reservationServiceImpl.updateReservation(id, request, null);
+        });
+
+        verify(reservationChangeLog, never()).updated(any());
+    }
+
     @Test
     public void shouldPassWhenUpdatingAReservationAndIsTheSameReservationWithContainedDates() {
         /*
@@ -311,16 +728,17 @@ public class ReservationServiceTest {
 
         Reservation savedReservation = ReservationMother.fromRequest(request)
                 .id(id)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(savedReservation));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(savedReservation));
-        when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
+        //the room was booked before, its room_lock row exists
+        when(roomLockRepository.findByRoomNumberInOrderByRoomNumber(Set.of(request.getRoomNumber())))
+                .thenReturn(List.of(new RoomLock(request.getRoomNumber())));
+        roomReservationIndex.put(savedReservation);
 
-        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request);
+        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request, null);
 
         assertEquals(savedReservation.getId(), response.getId());
         assertEquals(request.getRoomNumber(), response.getRoomNumber());
@@ -328,8 +746,10 @@ public class ReservationServiceTest {
         assertTrue(response.getReservationDates().contains(request.getStartDate()));
         assertTrue(response.getReservationDates().contains(request.getEndDate()));
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
+        verify(reservationCache).evict(id, Set.of(request.getRoomNumber()));
+        verify(entityManager).flush();
+        verify(reservationChangeLog).updated(savedReservation);
     }
 
     @Test
@@ -354,16 +774,14 @@ public class ReservationServiceTest {
 
         Reservation savedReservation = ReservationMother.fromRequest(request)
                 .id(id)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(savedReservation));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(savedReservation));
-        when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
+        roomReservationIndex.put(savedReservation);
 
-        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request);
+        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request, null);
 
         assertEquals(savedReservation.getId(), response.getId());
         assertEquals(request.getRoomNumber(), response.getRoomNumber());
@@ -371,7 +789,6 @@ public class ReservationServiceTest {
         assertTrue(response.getReservationDates().contains(request.getStartDate()));
         assertTrue(response.getReservationDates().contains(request.getEndDate()));
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
@@ -397,16 +814,14 @@ public class ReservationServiceTest {
 
         Reservation savedReservation = ReservationMother.fromRequest(request)
                 .id(id)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(savedReservation));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(savedReservation));
-        when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
+        roomReservationIndex.put(savedReservation);
 
-        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request);
+        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request, null);
 
         assertEquals(savedReservation.getId(), response.getId());
         assertEquals(request.getRoomNumber(), response.getRoomNumber());
@@ -414,7 +829,6 @@ public class ReservationServiceTest {
         assertTrue(response.getReservationDates().contains(request.getStartDate()));
         assertTrue(response.getReservationDates().contains(request.getEndDate()));
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
@@ -440,16 +854,14 @@ public class ReservationServiceTest {
 
         Reservation savedReservation = ReservationMother.fromRequest(request)
                 .id(id)
-                .reservationDates(Arrays.asList(savedReservationStartDate, savedReservationEndDate))
+                .startDate(savedReservationStartDate)
+                .endDate(savedReservationEndDate)
                 .build();
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
         when(reservationRepository.findById(id)).thenReturn(Optional.of(savedReservation));
-        when(reservationRepository.findByReservationAndByOverlappingDates(requestStartDate, requestEndDate, request.getRoomNumber()))
-                .thenReturn(Arrays.asList(savedReservation));
-        when(reservationRepository.save(any(Reservation.class))).then(AdditionalAnswers.returnsFirstArg());
+        roomReservationIndex.put(savedReservation);
 
-        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request);
+        ReservationResponseDTO response = reservationServiceImpl.updateReservation(id, request, null);
 
         assertEquals(savedReservation.getId(), response.getId());
         assertEquals(request.getRoomNumber(), response.getRoomNumber());
@@ -457,10 +869,48 @@ public class ReservationServiceTest {
         assertTrue(response.getReservationDates().contains(request.getStartDate()));
         assertTrue(response.getReservationDates().contains(request.getEndDate()));
 
-        verify(reservationRepository).existsById(id);
         verify(reservationRepository).findById(id);
     }
 
+    @Test
+    public void shouldReturnAReservation() {
+        Reservation reservation = ReservationMother.complete().build();
+
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+
+        ReservationResponseDTO response = reservationServiceImpl.getReservation(reservation.getId());
+
+        assertEquals(reservation.getId(), response.getId());
+        assertEquals(reservation.getClientFullName(), response.getClientFullName());
+    }
+
+    @Test
+    public void shouldFailWhenGettingANonExistentReservation() {
+        int id = 123;
+
+        when(reservationRepository.findById(id)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
+            reservationServiceImpl.getReservation(id);
+        });
+
+        assertEquals(String.format("reservation not found with id: %d", id), exception.getMessage());
+    }
+
+    @Test
+    public void shouldReturnTheReservationsOfARoom() {
+        Reservation first = ReservationMother.complete().roomNumber(7).build();
+        Reservation second = ReservationMother.complete().id(first.getId() + 1).roomNumber(7).build();
+
+        when(reservationRepository.findByRoomNumberOrderByStartDateAsc(7)).thenReturn(Arrays.asList(first, second));
+
+        List<ReservationResponseDTO> response = reservationServiceImpl.getRoomReservations(7);
+
+        assertEquals(2, response.size());
+        assertEquals(first.getId(), response.get(0).getId());
+        assertEquals(second.getId(), response.get(1).getId());
+    }
+
     @Test
     public void shouldReturnAListOfReservations() {
         List<Reservation> reservations = Arrays.asList(ReservationMother.inThePast().build(), ReservationMother.complete().build());
@@ -476,11 +926,44 @@ public class ReservationServiceTest {
 
     }
 
+    @Test
+    public void shouldReturnAPageOfReservations() {
+        List<Reservation> reservations = Arrays.asList(ReservationMother.complete().id(11).build(), ReservationMother.complete().id(12).build());
+
+        when(reservationRepository.findByIdGreaterThanOrderByIdAsc(10, Limit.of(2))).thenReturn(reservations);
+
+        List<ReservationResponseDTO> response = reservationServiceImpl.getReservations(10, 2);
+
+        assertEquals(2, response.size());
+        assertEquals(11, response.get(0).getId());
+        assertEquals(12, response.get(1).getId());
+
+        verify(reservationRepository).findByIdGreaterThanOrderByIdAsc(10, Limit.of(2));
+    }
+
+    @Test
+    public void shouldStreamReservationsDetachingEachOne() {
+        Reservation first = ReservationMother.complete().build();
+        Reservation second = ReservationMother.complete().build();
+
+        when(reservationRepository.streamAll()).thenReturn(Stream.of(first, second));
+
+        List<ReservationResponseDTO> response = new ArrayList<>();
+        reservationServiceImpl.streamReservations(response::add);
+
+        assertEquals(2, response.size());
+        assertEquals(first.getId(), response.get(0).getId());
+        assertEquals(second.getId(), response.get(1).getId());
+
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
     @Test
     public void shouldFailWhenDeletingANonExistentReservation() {
         int id = 123;
 
-        when(reservationRepository.existsById(id)).thenReturn(false);
+        when(reservationRepository.findById(id)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
            reservationServiceImpl.deleteReservation(id);
@@ -488,7 +971,10 @@ public class ReservationServiceTest {
 
         assertEquals(String.format("reservation not found with id: %d", id), exception.getMessage());
 
-        verify(reservationRepository).existsById(id);
+        verify(reservationRepository, never()).delete(any(Reservation.class));
+        verify(reservationCache, never()).evict(anyInt(), any());
+        verify(reservationEvents, never()).deleted(anyInt());
+        verify(reservationChangeLog, never()).deleted(anyInt());
 
     }
 
@@ -496,14 +982,29 @@ public class ReservationServiceTest {
     public void shouldPassWhenDeletingAExistingReservation() {
         int id = 123;
 
-        when(reservationRepository.existsById(id)).thenReturn(true);
+        Reservation reservation = ReservationMother.complete().id(id).build();
+
+        roomReservationIndex.put(reservation);
+        when(reservationRepository.findById(id)).thenReturn(Optional.of(reservation));
 
         reservationServiceImpl.deleteReservation(id);
 
-        verify(reservationRepository).existsById(id);
-        verify(reservationRepository).deleteById(id);
+        verify(reservationRepository).delete(reservation);
+        verify(reservationCache).evict(id, List.of(reservation.getRoomNumber()));
+        verify(reservationEvents).deleted(id);
+        verify(reservationChangeLog).deleted(id);
+        assertTrue(roomReservationIndex.findOverlapping(reservation.getRoomNumber(), reservation.getStartDate(), reservation.getEndDate()).isEmpty());
 
     }
 
 
+
+    private RoomHold.RoomHoldBuilder hold(ReservationRequestDTO request) {
+        return RoomHold.builder()
+                .id(UUID.randomUUID())
+                .roomNumber(request.getRoomNumber())
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .expiresAt(Instant.now().plusSeconds(600));
+    }
 }
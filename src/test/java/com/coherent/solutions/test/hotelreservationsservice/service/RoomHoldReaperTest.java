@@ -0,0 +1,79 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.ReservationRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.request.RoomHoldRequestDTO;
+import com.coherent.solutions.test.hotelreservationsservice.dto.response.RoomHoldResponseDTO;
+import com.coherent.solutions.test.hotelreservationsservice.exceptions.BadRequestException;
+import com.coherent.solutions.test.hotelreservationsservice.objectmother.dto.request.ReservationRequestDTOMother;
+import com.coherent.solutions.test.hotelreservationsservice.repository.RoomHoldRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "hotel.holds.ttl=1s",
+        "spring.datasource.url=jdbc:h2:mem:held-rooms;DB_CLOSE_DELAY=-1"
+})
+public class RoomHoldReaperTest {
+
+    private static final long REAP_TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private RoomHoldRepository roomHoldRepository;
+
+    @Test
+    public void shouldBlockTheRoomUntilTheHoldExpiresAndThenDeleteIt() throws Exception {
+        RoomHoldResponseDTO hold = reservationService.holdRoom(holdRequest(8001));
+
+        assertThrows(BadRequestException.class, () -> reservationService.saveReservation(booking(8001).build()));
+        assertThrows(BadRequestException.class, () -> reservationService.holdRoom(holdRequest(8001)));
+
+        awaitDeleted(hold);
+
+        assertEquals(8001, reservationService.saveReservation(booking(8001).build()).getRoomNumber());
+    }
+
+    @Test
+    public void shouldBookAHeldRoomWithItsHoldId() {
+        RoomHoldResponseDTO hold = reservationService.holdRoom(holdRequest(8002));
+
+        reservationService.saveReservation(booking(8002).holdId(hold.getId()).build());
+
+        assertFalse(roomHoldRepository.existsById(hold.getId()));
+    }
+
+    private void awaitDeleted(RoomHoldResponseDTO hold) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + REAP_TIMEOUT_MILLIS;
+        while (roomHoldRepository.existsById(hold.getId()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(System.currentTimeMillis() < deadline, "the expired hold was not deleted");
+    }
+
+    private RoomHoldRequestDTO holdRequest(int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(10);
+        return RoomHoldRequestDTO.builder()
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2))
+                .build();
+    }
+
+    private ReservationRequestDTO.ReservationRequestDTOBuilder booking(int roomNumber) {
+        LocalDate startDate = LocalDate.now().plusDays(11);
+        return ReservationRequestDTOMother.complete()
+                .roomNumber(roomNumber)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(2));
+    }
+}
@@ -0,0 +1,78 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.model.RoomHold;
+import com.coherent.solutions.test.hotelreservationsservice.service.hold.RoomHolds;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoomHoldsTest {
+
+    private static final LocalDate START_DATE = LocalDate.now().plusDays(10);
+    private static final LocalDate END_DATE = START_DATE.plusDays(3);
+
+    private final RoomHolds roomHolds = new RoomHolds();
+
+    @Test
+    public void shouldBlockOnlyOverlappingNightsOfOtherGuests() {
+        /*
+        hold of room 7              Start |-------------| End
+        overlapping       Start |-------------| End
+        next to it                                      Start |------| End
+        */
+        RoomHold hold = hold(7, Instant.now().plus(10, ChronoUnit.MINUTES));
+        roomHolds.put(hold);
+
+        assertTrue(roomHolds.isHeld(7, START_DATE.minusDays(2), START_DATE.plusDays(1), null));
+        assertFalse(roomHolds.isHeld(7, END_DATE, END_DATE.plusDays(2), null));
+        assertFalse(roomHolds.isHeld(8, START_DATE, END_DATE, null));
+        assertFalse(roomHolds.isHeld(7, START_DATE, END_DATE, hold.getId()));
+
+        assertTrue(roomHolds.remove(hold.getId()));
+
+        assertFalse(roomHolds.isHeld(7, START_DATE, END_DATE, null));
+    }
+
+    @Test
+    public void shouldStopBlockingOnceExpiredEvenBeforeBeingDropped() {
+        roomHolds.put(hold(7, Instant.now().minusSeconds(1)));
+
+        assertFalse(roomHolds.isHeld(7, START_DATE, END_DATE, null));
+    }
+
+    @Test
+    public void shouldDropExpiredHoldsInBatchesEarliestFirst() {
+        Instant now = Instant.now();
+        RoomHold first = hold(7, now.minusSeconds(3));
+        RoomHold second = hold(8, now.minusSeconds(2));
+        RoomHold third = hold(9, now.minusSeconds(1));
+        RoomHold notExpired = hold(10, now.plus(10, ChronoUnit.MINUTES));
+        for (RoomHold hold : List.of(third, notExpired, first, second)) {
+            roomHolds.put(hold);
+        }
+
+        assertEquals(List.of(first.getId(), second.getId()), roomHolds.pollExpired(2));
+        assertEquals(List.of(third.getId()), roomHolds.pollExpired(2));
+        assertEquals(List.of(), roomHolds.pollExpired(2));
+        assertTrue(roomHolds.isHeld(10, START_DATE, END_DATE, null));
+        assertFalse(roomHolds.remove(first.getId()));
+    }
+
+    private RoomHold hold(int roomNumber, Instant expiresAt) {
+        return RoomHold.builder()
+                .id(UUID.randomUUID())
+                .roomNumber(roomNumber)
+                .startDate(START_DATE)
+                .endDate(END_DATE)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
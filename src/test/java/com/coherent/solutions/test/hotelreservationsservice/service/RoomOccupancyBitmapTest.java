@@ -0,0 +1,130 @@
+package com.coherent.solutions.test.hotelreservationsservice.service;
+
+import com.coherent.solutions.test.hotelreservationsservice.config.HotelProperties;
+import com.coherent.solutions.test.hotelreservationsservice.model.Reservation;
+import com.coherent.solutions.test.hotelreservationsservice.service.index.RoomOccupancyBitmap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoomOccupancyBitmapTest {
+
+    //nights 60 to 70 of the bitmap, across two of its longs
+    private static final LocalDate START_DATE = LocalDate.now().with(TemporalAdjusters.firstDayOfYear()).plusDays(60);
+    private static final LocalDate END_DATE = START_DATE.plusDays(10);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void shouldFindOnlyOverlappingNights() {
+        RoomOccupancyBitmap bitmap = open("");
+        /*
+        room 7                      Start |-------------| End
+        overlapping       Start |-------------| End
+        next to it                                      Start |------| End
+        */
+        bitmap.book(7, START_DATE, END_DATE);
+
+        assertTrue(bitmap.isBooked(7, START_DATE.minusDays(3), START_DATE.plusDays(1)));
+        assertTrue(bitmap.isBooked(7, END_DATE.minusDays(1), END_DATE));
+        assertFalse(bitmap.isBooked(7, END_DATE, END_DATE.plusDays(5)));
+        assertFalse(bitmap.isBooked(7, START_DATE.minusDays(5), START_DATE));
+        assertFalse(bitmap.isBooked(8, START_DATE, END_DATE));
+
+        bitmap.release(7, START_DATE, END_DATE);
+
+        assertFalse(bitmap.isBooked(7, START_DATE, END_DATE));
+    }
+
+    @Test
+    public void shouldIgnoreTheNightsOfTheReservationBeingMoved() {
+        RoomOccupancyBitmap bitmap = open("");
+        Reservation booked = Reservation.builder().roomNumber(7).startDate(START_DATE).endDate(END_DATE).build();
+        bitmap.book(booked);
+        bitmap.book(7, END_DATE.plusDays(2), END_DATE.plusDays(4));
+
+        assertFalse(bitmap.isBooked(7, START_DATE.plusDays(1), END_DATE.plusDays(2), booked));
+        assertTrue(bitmap.isBooked(7, START_DATE.plusDays(1), END_DATE.plusDays(3), booked));
+    }
+
+    @Test
+    public void shouldOnlyCoverItsRoomsAndDates() {
+        RoomOccupancyBitmap bitmap = open("");
+
+        assertTrue(bitmap.covers(99, START_DATE, END_DATE));
+        assertFalse(bitmap.covers(100, START_DATE, END_DATE));
+        assertFalse(bitmap.covers(7, bitmap.getFirstDate().minusDays(1), END_DATE));
+        assertFalse(bitmap.covers(7, START_DATE, bitmap.getEndDate().plusDays(1)));
+    }
+
+    @Test
+    public void shouldRestoreTheBookingsOfAClosedFile() throws Exception {
+        String file = directory.resolve("room-occupancy.bin").toString();
+        RoomOccupancyBitmap bitmap = open(file);
+        assertFalse(bitmap.isRestored());
+        bitmap.book(7, START_DATE, END_DATE);
+        bitmap.close();
+
+        RoomOccupancyBitmap restored = open(file);
+
+        assertTrue(restored.isRestored());
+        assertTrue(restored.isBooked(7, START_DATE, END_DATE));
+        restored.close();
+    }
+
+    @Test
+    public void shouldRebuildAFileThatWasNotClosed() throws Exception {
+        String file = directory.resolve("room-occupancy.bin").toString();
+        RoomOccupancyBitmap crashed = open(file);
+        crashed.book(7, START_DATE, END_DATE);
+
+        RoomOccupancyBitmap reopened = open(file);
+
+        assertFalse(reopened.isRestored());
+        assertFalse(reopened.isBooked(7, START_DATE, END_DATE));
+        reopened.close();
+    }
+
+    @Test
+    public void shouldRestoreTheBookingsOnlyForTheReservationsTheyWereWrittenFor() throws Exception {
+        String file = directory.resolve("room-occupancy.bin").toString();
+        Reservation booked = Reservation.builder().id(1).roomNumber(7).startDate(START_DATE).endDate(END_DATE).build();
+        Reservation moved = Reservation.builder().id(1).roomNumber(7).startDate(START_DATE).endDate(END_DATE.plusDays(1)).build();
+        RoomOccupancyBitmap bitmap = open(file);
+        bitmap.restore(List.of());
+        bitmap.book(booked);
+        bitmap.close();
+
+        RoomOccupancyBitmap sameReservations = open(file);
+        assertTrue(sameReservations.restore(List.of(booked)));
+        assertTrue(sameReservations.isBooked(7, START_DATE, END_DATE));
+        sameReservations.close();
+
+        RoomOccupancyBitmap changedWhileStopped = open(file);
+        assertFalse(changedWhileStopped.restore(List.of(moved)));
+        assertFalse(changedWhileStopped.isRestored());
+        changedWhileStopped.close();
+
+        RoomOccupancyBitmap otherDatabase = open(file);
+        assertFalse(otherDatabase.restore(List.of()));
+        otherDatabase.close();
+    }
+
+    private RoomOccupancyBitmap open(String file) {
+        HotelProperties hotelProperties = new HotelProperties();
+        hotelProperties.getOccupancy().setFile(file);
+        hotelProperties.getOccupancy().setLastRoom(99);
+        hotelProperties.getOccupancy().setHorizonYears(1);
+        RoomOccupancyBitmap bitmap = new RoomOccupancyBitmap(hotelProperties);
+        bitmap.open();
+        return bitmap;
+    }
+}